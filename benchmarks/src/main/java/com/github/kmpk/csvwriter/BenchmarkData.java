@@ -0,0 +1,153 @@
+package com.github.kmpk.csvwriter;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Record shapes used by the benchmarks. Every shape produces deterministic rows for a given index.
+ */
+public enum BenchmarkData {
+    /**
+     * A few short, escape-free columns.
+     */
+    NARROW(Narrow.class, Narrow::new),
+    /**
+     * Thirty columns of mixed primitive and string types.
+     */
+    WIDE(Wide.class, Wide::new),
+    /**
+     * String columns that contain quotes, delimiters and newlines, so every value has to be escaped.
+     */
+    ESCAPING(Escaping.class, Escaping::new),
+    /**
+     * Mostly null reference columns.
+     */
+    NULL_HEAVY(NullHeavy.class, NullHeavy::new),
+    /**
+     * Array and collection columns.
+     */
+    ARRAYS(Arrays.class, Arrays::new);
+
+    private final Class<?> type;
+    private final IntFunction<?> factory;
+
+    BenchmarkData(Class<?> type, IntFunction<?> factory) {
+        this.type = type;
+        this.factory = factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Class<T> type() {
+        return (Class<T>) type;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T[] rows(int count) {
+        Object[] rows = (Object[]) java.lang.reflect.Array.newInstance(type, count);
+        for (int i = 0; i < count; i++) {
+            rows[i] = factory.apply(i);
+        }
+        return (T[]) rows;
+    }
+
+    public static class Narrow {
+        private final int id;
+        private final long timestamp;
+        private final String name;
+
+        Narrow(int i) {
+            id = i;
+            timestamp = 1_700_000_000_000L + i;
+            name = "name" + i;
+        }
+    }
+
+    public static class Wide {
+        private final int i1, i2, i3, i4, i5, i6;
+        private final long l1, l2, l3, l4, l5, l6;
+        private final double d1, d2, d3, d4, d5, d6;
+        private final boolean b1, b2, b3, b4, b5, b6;
+        private final String s1, s2, s3, s4, s5, s6;
+
+        Wide(int i) {
+            Random random = new Random(i);
+            i1 = random.nextInt();
+            i2 = random.nextInt();
+            i3 = random.nextInt();
+            i4 = random.nextInt();
+            i5 = random.nextInt();
+            i6 = random.nextInt();
+            l1 = random.nextLong();
+            l2 = random.nextLong();
+            l3 = random.nextLong();
+            l4 = random.nextLong();
+            l5 = random.nextLong();
+            l6 = random.nextLong();
+            d1 = random.nextDouble();
+            d2 = random.nextDouble();
+            d3 = random.nextDouble();
+            d4 = random.nextDouble();
+            d5 = random.nextDouble();
+            d6 = random.nextDouble();
+            b1 = random.nextBoolean();
+            b2 = random.nextBoolean();
+            b3 = random.nextBoolean();
+            b4 = random.nextBoolean();
+            b5 = random.nextBoolean();
+            b6 = random.nextBoolean();
+            s1 = "value" + random.nextInt(100);
+            s2 = "value" + random.nextInt(100);
+            s3 = "value" + random.nextInt(100);
+            s4 = "value" + random.nextInt(100);
+            s5 = "value" + random.nextInt(100);
+            s6 = "value" + random.nextInt(100);
+        }
+    }
+
+    public static class Escaping {
+        private final int id;
+        private final String quoted;
+        private final String delimited;
+        private final String multiline;
+
+        Escaping(int i) {
+            id = i;
+            quoted = "he said \"" + i + "\" twice \"" + i + "\"";
+            delimited = "a," + i + ",b,c";
+            multiline = "line " + i + "\r\nnext line\r\nlast line";
+        }
+    }
+
+    public static class NullHeavy {
+        private final int id;
+        private final String s1;
+        private final String s2;
+        private final String s3;
+        private final Integer n1;
+        private final Integer n2;
+
+        NullHeavy(int i) {
+            id = i;
+            s1 = i % 10 == 0 ? "present" : null;
+            s2 = null;
+            s3 = null;
+            n1 = i % 5 == 0 ? i : null;
+            n2 = null;
+        }
+    }
+
+    public static class Arrays {
+        private final int id;
+        private final String[] tags;
+        private final Integer[] samples;
+        private final List<String> labels;
+
+        Arrays(int i) {
+            id = i;
+            tags = new String[]{"tag" + i % 3, "tag" + i % 5, "tag" + i % 7};
+            samples = new Integer[]{i, i + 1, i + 2, i + 3, i + 4, i + 5, i + 6, i + 7};
+            labels = List.of("label" + i % 2, "label" + i % 4);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.kmpk.csvwriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end throughput of {@link CsvWriter}, in rows per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvWriterBenchmark {
+    private static final int ROWS = 10_000;
+
+    @Param
+    private BenchmarkData data;
+
+    private Object[] rows;
+    private CsvWriter csvWriter;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        rows = data.rows(ROWS);
+        csvWriter = new CsvWriterBuilder().build();
+        file = Files.createTempFile("benchmark", ".csv").toFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void writeToFile() throws IOException, IllegalAccessException {
+        csvWriter.writeToFile(rows, data.type(), file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void writeToNullWriter() throws IOException, IllegalAccessException {
+        csvWriter.write(Arrays.asList(rows).iterator(), data.type(), java.io.Writer.nullWriter());
+    }
+}
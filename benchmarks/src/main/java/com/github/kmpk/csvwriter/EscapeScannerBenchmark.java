@@ -0,0 +1,79 @@
+package com.github.kmpk.csvwriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of copying values into a buffer and finding the first char that requires quoting, in values per second.
+ * {@code copyAndScan} copies in bulk and runs the scalar or the {@code jdk.incubator.vector} scanner over the copy,
+ * {@code copyPerChar} checks each char of the string while copying it, as {@link Writer} did before.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class EscapeScannerBenchmark {
+    private static final String NEW_LINE = "\r\n";
+
+    @Param({"16", "2048"})
+    private int length;
+
+    @Param({"scalar", "vector"})
+    private String scanner;
+
+    private String value;
+    private char[] chars;
+    private EscapeScanner escapeScanner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        value = builder.toString();
+        chars = value.toCharArray();
+        escapeScanner = switch (scanner) {
+            case "scalar" -> EscapeScanner.SCALAR;
+            case "vector" -> EscapeScanner.vector();
+            default -> throw new IllegalArgumentException(scanner);
+        };
+        if (escapeScanner == null) {
+            throw new IllegalStateException("The Vector API is not available");
+        }
+    }
+
+    @Benchmark
+    public int copyAndScan() {
+        value.getChars(0, length, chars, 0);
+        return escapeScanner.indexOfAny(chars, 0, length, '"', ',', '\r');
+    }
+
+    @Benchmark
+    public int copyPerChar() {
+        String s = value;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == ',' || (c == '\r' && s.startsWith(NEW_LINE, i))) {
+                chars[i] = c;
+                return i;
+            }
+            chars[i] = c;
+        }
+        return length;
+    }
+}
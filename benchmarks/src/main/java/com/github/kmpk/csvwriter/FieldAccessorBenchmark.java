@@ -0,0 +1,63 @@
+package com.github.kmpk.csvwriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of reading and formatting field values with {@link FieldAccessor}, in rows per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FieldAccessorBenchmark {
+    private static final int ROWS = 1_000;
+
+    @Param
+    private BenchmarkData data;
+
+    private Object[] rows;
+    private FieldAccessor<Object> accessor;
+    private Writer writer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rows = data.rows(ROWS);
+        accessor = FieldAccessor.of(data.type());
+        writer = new Writer(java.io.Writer.nullWriter(), ',', "\r\n");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void getFieldValues(Blackhole blackhole) throws IllegalAccessException {
+        for (Object row : rows) {
+            blackhole.consume(accessor.getFieldValues(row));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void writeFieldValues() throws IllegalAccessException, IOException {
+        for (Object row : rows) {
+            accessor.writeFieldValues(row, writer);
+            writer.endLine();
+        }
+    }
+}
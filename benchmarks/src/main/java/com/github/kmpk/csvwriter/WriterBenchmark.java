@@ -0,0 +1,56 @@
+package com.github.kmpk.csvwriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of escaping and buffering single values with {@link Writer}, in values per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class WriterBenchmark {
+    @Param({"16", "2048"})
+    private int length;
+
+    @Param({"false", "true"})
+    private boolean escaping;
+
+    private String value;
+    private Writer writer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        if (escaping) {
+            builder.setCharAt(length / 2, '"');
+        }
+        value = builder.toString();
+        writer = new Writer(java.io.Writer.nullWriter(), ',', "\r\n");
+    }
+
+    @Benchmark
+    public void value() throws IOException {
+        writer.value(value);
+        writer.endLine();
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.kmpk.csvwriter;
+
+/**
+ * Defines how {@link CsvWriter} reads the columns of a class. Records are always read through their component
+ * accessors, in component order, whatever the strategy.
+ */
+public enum AccessStrategy {
+    /**
+     * Reads the non-static fields of the class and its superclasses, superclass fields first.
+     */
+    FIELDS,
+    /**
+     * Reads the JavaBean getters of the class and its superclasses: no-arg methods named {@code getX}, or {@code isX}
+     * returning {@code boolean}. Columns are named after the properties and ordered like the fields backing them,
+     * getters without a backing field come last, ordered by name. {@link CsvHint} and {@link CsvIgnore} are taken
+     * from the getter or, if it has none, from the backing field.
+     */
+    GETTERS
+}
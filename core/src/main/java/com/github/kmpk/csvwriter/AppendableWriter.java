@@ -0,0 +1,38 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Adapts an arbitrary {@link Appendable} to a {@link java.io.Writer}. Closing the adapter only flushes the target,
+ * the target itself stays open.
+ */
+class AppendableWriter extends java.io.Writer {
+    private final Appendable target;
+
+    AppendableWriter(Appendable target) {
+        this.target = target;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if (target instanceof StringBuilder builder) {
+            builder.append(cbuf, off, len);
+        } else {
+            target.append(CharBuffer.wrap(cbuf, off, len));
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (target instanceof Flushable flushable) {
+            flushable.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.kmpk.csvwriter;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+
+/**
+ * Format of array and collection values: the elements joined with a separator and enclosed in a prefix and suffix.
+ *
+ * @param prefix    The text written before the first element.
+ * @param separator The text written between elements.
+ * @param suffix    The text written after the last element.
+ */
+record ArrayFormat(String prefix, String separator, String suffix) {
+    /**
+     * The format of {@link java.util.Arrays#toString(Object[])}, e.g. {@code [1, 2, 3]}.
+     */
+    static final ArrayFormat DEFAULT = new ArrayFormat("[", ", ", "]");
+
+    /**
+     * Returns the unescaped text of an array or collection in this format, with elements formatted as
+     * {@link Writer#value(Object)} formats them.
+     */
+    String format(Object value) {
+        StringBuilder text = new StringBuilder(prefix);
+        if (value instanceof Collection<?> collection) {
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    text.append(separator);
+                }
+                first = false;
+                text.append(element);
+            }
+        } else {
+            for (int i = 0, length = Array.getLength(value); i < length; i++) {
+                if (i > 0) {
+                    text.append(separator);
+                }
+                text.append(Array.get(value, i));
+            }
+        }
+        return text.append(suffix).toString();
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.kmpk.csvwriter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Formats numbers and {@code java.time} values as ASCII chars straight into a char buffer, producing the same text
+ * as their {@code toString()} methods without creating intermediate Strings.
+ * Every method writes at the specified position and returns the position after the written chars. Callers must make
+ * sure the buffer has at least {@link #MAX_LENGTH} chars of room.
+ */
+final class AsciiFormat {
+    /**
+     * The maximum number of chars written by a single call.
+     */
+    static final int MAX_LENGTH = 40;
+
+    /**
+     * The chars that formatted numbers and dates may contain.
+     */
+    private static final String FORMATTED_CHARS = "0123456789+-.:EINTZafinty";
+
+    private static final long MIN_INSTANT_SECONDS = -62_167_219_200L; // 0000-01-01T00:00:00Z
+    private static final long MAX_INSTANT_SECONDS = 253_402_300_799L; // 9999-12-31T23:59:59Z
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private AsciiFormat() {
+    }
+
+    /**
+     * Returns whether formatted values may contain the char, i.e. whether a delimiter or newline containing it
+     * would require formatted values to be escaped.
+     */
+    static boolean mayContain(char c) {
+        return FORMATTED_CHARS.indexOf(c) != -1;
+    }
+
+    static int putLong(char[] buf, int pos, long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                "-9223372036854775808".getChars(0, 20, buf, pos);
+                return pos + 20;
+            }
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = pos + digits;
+        for (int p = end - 1; p >= pos; p--) {
+            buf[p] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * Writes the shortest decimal representation that uniquely distinguishes the value, as
+     * {@link Double#toString(double)} does. Integral values below 10<sup>7</sup> are formatted directly, other
+     * values go through the scratch builder, which formats them without creating a String.
+     */
+    static int putDouble(char[] buf, int pos, double value, StringBuilder scratch) {
+        if (value == (long) value && Math.abs(value) < 1e7) {
+            if (value == 0 && Double.doubleToRawLongBits(value) != 0) {
+                buf[pos++] = '-';
+            }
+            pos = putLong(buf, pos, (long) value);
+            buf[pos++] = '.';
+            buf[pos++] = '0';
+            return pos;
+        }
+        scratch.setLength(0);
+        scratch.append(value);
+        return putScratch(buf, pos, scratch);
+    }
+
+    /**
+     * Writes the value as {@link Float#toString(float)} does.
+     */
+    static int putFloat(char[] buf, int pos, float value, StringBuilder scratch) {
+        if (value == (long) value && Math.abs(value) < 1e7f) {
+            return putDouble(buf, pos, value, scratch);
+        }
+        scratch.setLength(0);
+        scratch.append(value);
+        return putScratch(buf, pos, scratch);
+    }
+
+    private static int putScratch(char[] buf, int pos, StringBuilder scratch) {
+        int length = scratch.length();
+        scratch.getChars(0, length, buf, pos);
+        return pos + length;
+    }
+
+    /**
+     * Writes the date as {@link LocalDate#toString()} does, e.g. {@code 2024-01-31}.
+     */
+    static int putLocalDate(char[] buf, int pos, LocalDate date) {
+        return putDate(buf, pos, date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+    }
+
+    /**
+     * Writes the time as {@link LocalTime#toString()} does, e.g. {@code 10:15}, {@code 10:15:30} or
+     * {@code 10:15:30.123}.
+     */
+    static int putLocalTime(char[] buf, int pos, LocalTime time) {
+        return putTime(buf, pos, time.getHour(), time.getMinute(), time.getSecond(), time.getNano(), false);
+    }
+
+    /**
+     * Writes the date-time as {@link LocalDateTime#toString()} does, e.g. {@code 2024-01-31T10:15:30}.
+     */
+    static int putLocalDateTime(char[] buf, int pos, LocalDateTime dateTime) {
+        pos = putLocalDate(buf, pos, dateTime.toLocalDate());
+        buf[pos++] = 'T';
+        return putLocalTime(buf, pos, dateTime.toLocalTime());
+    }
+
+    /**
+     * Returns whether {@link #putInstant} supports the instant. Instants outside of years 0000 to 9999 are not
+     * supported.
+     */
+    static boolean supports(Instant instant) {
+        long seconds = instant.getEpochSecond();
+        return seconds >= MIN_INSTANT_SECONDS && seconds <= MAX_INSTANT_SECONDS;
+    }
+
+    /**
+     * Writes the instant as {@link Instant#toString()} does, e.g. {@code 2024-01-31T10:15:30Z}.
+     */
+    static int putInstant(char[] buf, int pos, Instant instant) {
+        long seconds = instant.getEpochSecond();
+        long epochDay = Math.floorDiv(seconds, SECONDS_PER_DAY);
+        int secondOfDay = Math.floorMod(seconds, SECONDS_PER_DAY);
+        // civil date from days since 1970-01-01, see http://howardhinnant.github.io/date_algorithms.html
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        pos = putDate(buf, pos, year, month, day);
+        buf[pos++] = 'T';
+        pos = putTime(buf, pos, secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60, instant.getNano(), true);
+        buf[pos++] = 'Z';
+        return pos;
+    }
+
+    private static int putDate(char[] buf, int pos, int year, int month, int day) {
+        if (Math.abs(year) < 1000) {
+            if (year < 0) {
+                buf[pos++] = '-';
+            }
+            pos = putPadded(buf, pos, Math.abs(year), 4);
+        } else {
+            if (year > 9999) {
+                buf[pos++] = '+';
+            }
+            pos = putLong(buf, pos, year);
+        }
+        buf[pos++] = '-';
+        pos = putPadded(buf, pos, month, 2);
+        buf[pos++] = '-';
+        return putPadded(buf, pos, day, 2);
+    }
+
+    private static int putTime(char[] buf, int pos, int hour, int minute, int second, int nano, boolean alwaysSeconds) {
+        pos = putPadded(buf, pos, hour, 2);
+        buf[pos++] = ':';
+        pos = putPadded(buf, pos, minute, 2);
+        if (alwaysSeconds || second > 0 || nano > 0) {
+            buf[pos++] = ':';
+            pos = putPadded(buf, pos, second, 2);
+            if (nano > 0) {
+                buf[pos++] = '.';
+                if (nano % 1_000_000 == 0) {
+                    pos = putPadded(buf, pos, nano / 1_000_000, 3);
+                } else if (nano % 1000 == 0) {
+                    pos = putPadded(buf, pos, nano / 1000, 6);
+                } else {
+                    pos = putPadded(buf, pos, nano, 9);
+                }
+            }
+        }
+        return pos;
+    }
+
+    private static int putPadded(char[] buf, int pos, int value, int width) {
+        for (int p = pos + width - 1; p >= pos; p--) {
+            buf[p] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
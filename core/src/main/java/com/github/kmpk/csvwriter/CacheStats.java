@@ -0,0 +1,28 @@
+package com.github.kmpk.csvwriter;
+
+/**
+ * Snapshot of cache statistics.
+ *
+ * @param hits   The number of lookups served from the cache.
+ * @param misses The number of lookups that had to resolve and cache a new entry.
+ */
+public record CacheStats(long hits, long misses) {
+    /**
+     * Returns the total number of lookups.
+     *
+     * @return The sum of hits and misses.
+     */
+    public long lookups() {
+        return hits + misses;
+    }
+
+    /**
+     * Returns the ratio of hits to lookups, or {@code 0} if there were no lookups.
+     *
+     * @return The hit rate between {@code 0} and {@code 1}.
+     */
+    public double hitRate() {
+        long lookups = lookups();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.kmpk.csvwriter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the encoded cells of one column of a {@link Writer}: values, compared with {@code equals}, mapped to
+ * the escaped chars written for them. Columns with few distinct values, e.g. enums or status strings, are then written
+ * by copying the cell instead of formatting and escaping the value again.
+ * <p>
+ * When the cache is full, an entry is evicted with the CLOCK algorithm: a hand sweeps the entries, sparing and
+ * clearing those used since its last pass. After the first {@value #SAMPLE_SIZE} lookups, a cache with a hit rate
+ * below {@value #MIN_HIT_PERCENT}% disables itself and releases its entries, so caching a column of mostly distinct
+ * values costs little more than the sample. Caches are used by one thread only.
+ */
+final class CellCache {
+    static final int SAMPLE_SIZE = 1024;
+    static final int MIN_HIT_PERCENT = 50;
+
+    private final Map<Object, Integer> slots;
+    private Object[] values;
+    private char[][] cells;
+    private boolean[] referenced;
+    private int size;
+    private int hand;
+    private long lookups;
+    private long hits;
+    private boolean enabled = true;
+
+    CellCache(int capacity) {
+        slots = new HashMap<>();
+        values = new Object[capacity];
+        cells = new char[capacity][];
+        referenced = new boolean[capacity];
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cell of the value, or {@code null} if it's not cached.
+     */
+    char[] get(Object value) {
+        if (!enabled) {
+            return null;
+        }
+        if (++lookups == SAMPLE_SIZE && hits * 100 < lookups * MIN_HIT_PERCENT) {
+            disable();
+            return null;
+        }
+        Integer slot = slots.get(value);
+        if (slot == null) {
+            return null;
+        }
+        hits++;
+        referenced[slot] = true;
+        return cells[slot];
+    }
+
+    /**
+     * Caches the cell of the value, evicting an entry if the cache is full.
+     */
+    void put(Object value, char[] cell) {
+        if (!enabled) {
+            return;
+        }
+        int slot;
+        if (size < values.length) {
+            slot = size++;
+        } else {
+            while (referenced[hand]) {
+                referenced[hand] = false;
+                hand = (hand + 1) % values.length;
+            }
+            slot = hand;
+            hand = (hand + 1) % values.length;
+            slots.remove(values[slot]);
+        }
+        slots.put(value, slot);
+        values[slot] = value;
+        cells[slot] = cell;
+        referenced[slot] = false;
+    }
+
+    private void disable() {
+        enabled = false;
+        slots.clear();
+        values = null;
+        cells = null;
+        referenced = null;
+    }
+}
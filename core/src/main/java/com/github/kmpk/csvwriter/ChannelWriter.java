@@ -0,0 +1,55 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Output backend that encodes into a direct {@link ByteBuffer} and writes it through a {@link FileChannel} once the
+ * buffer is full, so a large buffer means few system calls.
+ */
+class ChannelWriter extends Utf8Writer implements Syncable {
+    private final FileChannel channel;
+    private final boolean fsyncOnClose;
+
+    ChannelWriter(FileChannel channel, int bufferSize, boolean fsyncOnClose) {
+        this.channel = channel;
+        this.fsyncOnClose = fsyncOnClose;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, 16));
+    }
+
+    @Override
+    protected void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public long sync() throws IOException {
+        drain();
+        channel.force(false);
+        return channel.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try (channel) {
+            finishEncoding();
+            drain();
+            if (fsyncOnClose) {
+                channel.force(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Durable progress of a checkpointed write, stored next to the CSV file in {@code <name>.checkpoint}. The file holds
+ * everything up to {@code bytes} for the first {@code rows} elements of the source, header included.
+ *
+ * @param rows  The number of source elements written, including elements that produced no line.
+ * @param bytes The size of the file in bytes when the checkpoint was taken.
+ */
+record Checkpoint(long rows, long bytes) {
+    static final String SUFFIX = ".checkpoint";
+
+    static File file(File file) {
+        return new File(file.getParentFile(), file.getName() + SUFFIX);
+    }
+
+    /**
+     * Returns the last checkpoint of the file, or {@code null} if there is none.
+     *
+     * @throws IOException If the checkpoint can't be read or is corrupt.
+     */
+    static Checkpoint read(File file) throws IOException {
+        Path path = file(file).toPath();
+        if (!Files.exists(path)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            return new Checkpoint(Long.parseLong(properties.getProperty("rows")), Long.parseLong(properties.getProperty("bytes")));
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt checkpoint " + path, e);
+        }
+    }
+
+    /**
+     * Replaces the checkpoint of the file with this one. The checkpoint is forced to the storage device and then
+     * atomically moved into place, so a crash leaves either the previous or this checkpoint.
+     */
+    void write(File file) throws IOException {
+        Path target = file(file).toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        byte[] content = ("rows=" + rows + "\nbytes=" + bytes + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    static void delete(File file) throws IOException {
+        Files.deleteIfExists(file(file).toPath());
+    }
+}
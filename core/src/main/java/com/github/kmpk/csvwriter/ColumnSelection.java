@@ -0,0 +1,18 @@
+package com.github.kmpk.csvwriter;
+
+import java.util.List;
+
+/**
+ * Columns selected with {@link CsvWriterBuilder#columns(String...)} or {@link CsvWriterBuilder#columnOrders(int...)},
+ * in output order. At most one of the lists is set, if neither is, all columns are written.
+ *
+ * @param names  The selected column names, or {@code null}.
+ * @param orders The selected {@link CsvHint#order()} values, or {@code null}.
+ */
+record ColumnSelection(List<String> names, List<Integer> orders) {
+    static final ColumnSelection ALL = new ColumnSelection(null, null);
+
+    boolean isAll() {
+        return names == null && orders == null;
+    }
+}
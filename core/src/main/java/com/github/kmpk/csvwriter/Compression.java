@@ -0,0 +1,19 @@
+package com.github.kmpk.csvwriter;
+
+/**
+ * Compression applied to CSV files written by {@link CsvWriter}.
+ */
+public enum Compression {
+    /**
+     * Files are written uncompressed.
+     */
+    NONE,
+    /**
+     * Files are written in the gzip format, e.g. {@code export.csv.gz}.
+     */
+    GZIP,
+    /**
+     * Files are written as a zlib-wrapped deflate stream.
+     */
+    DEFLATE
+}
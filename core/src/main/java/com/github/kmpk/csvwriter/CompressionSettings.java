@@ -0,0 +1,50 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression settings of a {@link CsvWriter}.
+ *
+ * @param compression The compression format.
+ * @param level       The deflate level, from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}.
+ * @param bufferSize  The size of the compressor output buffer, and of a block compressed by a single thread.
+ * @param threads     The number of threads compressing blocks in parallel, 1 to compress on the writing thread.
+ */
+record CompressionSettings(Compression compression, int level, int bufferSize, int threads) {
+    static final int DEFAULT_BUFFER_SIZE = 128 * 1024;
+
+    boolean enabled() {
+        return compression != Compression.NONE;
+    }
+
+    /**
+     * Wraps the stream into a compressing stream. Closing the returned stream closes the wrapped one.
+     */
+    OutputStream wrap(OutputStream out) throws IOException {
+        if (threads > 1) {
+            return new ParallelDeflaterOutputStream(out, compression == Compression.GZIP, level, bufferSize, threads);
+        }
+        return switch (compression) {
+            case NONE -> out;
+            case GZIP -> new GZIPOutputStream(out, bufferSize) {
+                {
+                    def.setLevel(level);
+                }
+            };
+            case DEFLATE -> new DeflaterOutputStream(out, new Deflater(level), bufferSize) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        def.end();
+                    }
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.kmpk.csvwriter;
+
+import java.lang.invoke.MethodType;
+import java.util.Map;
+
+/**
+ * Converters registered on a {@link CsvWriterBuilder}, by field type.
+ */
+record Converters(Map<Class<?>, CsvConverter<?>> byType) {
+    static final Converters NONE = new Converters(Map.of());
+
+    Converters {
+        byType = Map.copyOf(byType);
+    }
+
+    boolean isEmpty() {
+        return byType.isEmpty();
+    }
+
+    /**
+     * Returns the converter registered for the field type, or {@code null} if there is none. Converters of primitive
+     * fields are registered for their wrapper types.
+     */
+    CsvConverter<?> forType(Class<?> type) {
+        return byType.get(type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type);
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+
+/**
+ * Provides the values of a column of {@link CsvColumns} by row index, for data that is not stored in an array.
+ * Values are written to the output like those of a {@link CsvConverter} and are escaped as needed.
+ */
+@FunctionalInterface
+public interface CsvColumn {
+    /**
+     * Writes the value of the column in the specified row.
+     *
+     * @param row The index of the row, from {@code 0} to the row count of the columns, exclusive.
+     * @param out The output of the value.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    void write(int row, CsvOutput out) throws IOException;
+}
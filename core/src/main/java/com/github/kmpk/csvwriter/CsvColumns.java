@@ -0,0 +1,176 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Data stored as parallel column arrays, written with {@link CsvWriter#writeToFile(CsvColumns, java.io.File)} without creating
+ * an object per row. Row {@code i} of the CSV holds element {@code i} of each column, columns appear in the order they
+ * were added. Arrays longer than the row count are written up to the row count, so partially filled buffers can be
+ * written as they are. Arrays are not copied and must not be modified while the columns are written.
+ * <p>
+ * Values are formatted like fields of the same type, {@code null} elements are written as empty values.
+ * Column selection, row filters and converters registered on {@link CsvWriterBuilder} don't apply to columns.
+ */
+public final class CsvColumns {
+    private final int rows;
+    private final List<String> names = new ArrayList<>();
+    private final List<Cell> cells = new ArrayList<>();
+
+    /**
+     * Creates empty columns of the specified number of rows.
+     *
+     * @param rows The number of rows.
+     * @throws IllegalArgumentException If rows is negative.
+     */
+    public CsvColumns(int rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("Row count must not be negative");
+        }
+        this.rows = rows;
+    }
+
+    /**
+     * Returns the number of rows.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Adds a column of {@code long} values.
+     *
+     * @param name   The column name in the header.
+     * @param values The values, at least one per row.
+     * @return This instance.
+     * @throws IllegalArgumentException If there are fewer values than rows.
+     */
+    public CsvColumns column(String name, long[] values) {
+        checkLength(values.length);
+        return add(name, (row, writer) -> writer.value(values[row]));
+    }
+
+    /**
+     * Adds a column of {@code int} values.
+     *
+     * @param name   The column name in the header.
+     * @param values The values, at least one per row.
+     * @return This instance.
+     * @throws IllegalArgumentException If there are fewer values than rows.
+     */
+    public CsvColumns column(String name, int[] values) {
+        checkLength(values.length);
+        return add(name, (row, writer) -> writer.value(values[row]));
+    }
+
+    /**
+     * Adds a column of {@code double} values.
+     *
+     * @param name   The column name in the header.
+     * @param values The values, at least one per row.
+     * @return This instance.
+     * @throws IllegalArgumentException If there are fewer values than rows.
+     */
+    public CsvColumns column(String name, double[] values) {
+        checkLength(values.length);
+        return add(name, (row, writer) -> writer.value(values[row]));
+    }
+
+    /**
+     * Adds a column of {@code float} values.
+     *
+     * @param name   The column name in the header.
+     * @param values The values, at least one per row.
+     * @return This instance.
+     * @throws IllegalArgumentException If there are fewer values than rows.
+     */
+    public CsvColumns column(String name, float[] values) {
+        checkLength(values.length);
+        return add(name, (row, writer) -> writer.value(values[row]));
+    }
+
+    /**
+     * Adds a column of {@code boolean} values.
+     *
+     * @param name   The column name in the header.
+     * @param values The values, at least one per row.
+     * @return This instance.
+     * @throws IllegalArgumentException If there are fewer values than rows.
+     */
+    public CsvColumns column(String name, boolean[] values) {
+        checkLength(values.length);
+        return add(name, (row, writer) -> writer.value(values[row]));
+    }
+
+    /**
+     * Adds a column of objects, formatted like fields of type {@code Object}.
+     *
+     * @param name   The column name in the header.
+     * @param values The values, at least one per row.
+     * @return This instance.
+     * @throws IllegalArgumentException If there are fewer values than rows.
+     */
+    public CsvColumns column(String name, Object[] values) {
+        checkLength(values.length);
+        return add(name, (row, writer) -> writer.value(values[row]));
+    }
+
+    /**
+     * Adds a column of objects written by the converter.
+     *
+     * @param name      The column name in the header.
+     * @param values    The values, at least one per row.
+     * @param converter The converter of the values.
+     * @param <V>       The type of the values.
+     * @return This instance.
+     * @throws IllegalArgumentException If there are fewer values than rows.
+     */
+    public <V> CsvColumns column(String name, V[] values, CsvConverter<? super V> converter) {
+        checkLength(values.length);
+        Objects.requireNonNull(converter);
+        return add(name, (row, writer) -> writer.value(values[row], converter));
+    }
+
+    /**
+     * Adds a column whose values are written by the provider.
+     *
+     * @param name   The column name in the header.
+     * @param column The provider of the values.
+     * @return This instance.
+     */
+    public CsvColumns column(String name, CsvColumn column) {
+        Objects.requireNonNull(column);
+        return add(name, (row, writer) -> writer.value(column, row));
+    }
+
+    String[] names() {
+        return names.toArray(String[]::new);
+    }
+
+    /**
+     * Writes the values of the row in all columns, without ending the line.
+     */
+    void writeRow(int row, Writer writer) throws IOException {
+        for (Cell cell : cells) {
+            cell.write(row, writer);
+        }
+    }
+
+    private CsvColumns add(String name, Cell cell) {
+        names.add(Objects.requireNonNull(name));
+        cells.add(cell);
+        return this;
+    }
+
+    private void checkLength(int length) {
+        if (length < rows) {
+            throw new IllegalArgumentException("Column has " + length + " values, but there are " + rows + " rows");
+        }
+    }
+
+    private interface Cell {
+        void write(int row, Writer writer) throws IOException;
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+
+/**
+ * Writes values of a type as CSV text. Converters are registered for field types with
+ * {@link CsvWriterBuilder#converter(Class, CsvConverter)} or for single fields with {@link CsvHint#converter()}.
+ * <p>
+ * Converters write straight into the output buffer through {@link CsvOutput}, so they don't need to create
+ * intermediate Strings. A converter whose output can never contain the delimiter, a double quote or the newline
+ * sequence should return {@code false} from {@link #mayNeedQuoting()}, so its output is not scanned for escaping.
+ * Converters must be thread-safe, since they may be called from several threads at once.
+ *
+ * @param <T> The type of converted values.
+ */
+@FunctionalInterface
+public interface CsvConverter<T> {
+    /**
+     * Writes the value to the output. Converters are never called with {@code null}, {@code null} values are
+     * written as empty values.
+     *
+     * @param value The value to write.
+     * @param out   The output of the value.
+     * @throws IOException If an I/O error occurs while writing to the output.
+     */
+    void write(T value, CsvOutput out) throws IOException;
+
+    /**
+     * Returns whether the output of this converter may contain the delimiter, double quotes or the newline sequence.
+     * If it returns {@code false}, the output is written as is, so output that does need quoting results in an
+     * invalid CSV.
+     *
+     * @return {@code true} if the output has to be scanned for escaping, {@code false} otherwise.
+     */
+    default boolean mayNeedQuoting() {
+        return true;
+    }
+
+    /**
+     * Returns a converter that writes the same output as the specified converter, but declares that it never needs
+     * quoting.
+     *
+     * @param converter The converter whose output never needs quoting.
+     * @param <T>       The type of converted values.
+     * @return A converter that is not scanned for escaping.
+     */
+    static <T> CsvConverter<T> unquoted(CsvConverter<T> converter) {
+        return new CsvConverter<>() {
+            @Override
+            public void write(T value, CsvOutput out) throws IOException {
+                converter.write(value, out);
+            }
+
+            @Override
+            public boolean mayNeedQuoting() {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.kmpk.csvwriter;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a buffer of encoded rows written to the underlying output. Like all JFR events, it costs nothing
+ * unless a recording enables it.
+ */
+@Name("com.github.kmpk.csvwriter.Flush")
+@Label("CSV Flush")
+@Category("CSV Writer")
+@Description("A buffer of encoded rows written to the underlying output")
+class CsvFlushEvent extends Event {
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,50 @@
+package com.github.kmpk.csvwriter;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@code @CsvHint} is used to customize the order, names and conversion of fields in CSV output.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface CsvHint {
+    String CUSTOM_NAME_DEFAULT = "";
+    /**
+     * Specifies the order in which fields should appear in the CSV output.
+     * Fields with lower order values will appear first. Fields with the same order value keep the order in which
+     * they are found: record components in declaration order, superclass fields before subclass fields, and getters
+     * in the order of their backing fields.
+     */
+    int order() default Integer.MAX_VALUE;
+    /**
+     * Specifies a custom name for the field in the CSV output.
+     * If not provided, the name of the field, record component or getter property will be used.
+     */
+    String name() default CUSTOM_NAME_DEFAULT;
+    /**
+     * Specifies the converter used to write the field. The converter class must have a no-arg constructor and takes
+     * precedence over converters registered with {@link CsvWriterBuilder#converter(Class, CsvConverter)}.
+     * If not provided, the field is written using the converter registered for its type, if any.
+     */
+    @SuppressWarnings("rawtypes")
+    Class<? extends CsvConverter> converter() default CsvConverter.class;
+    /**
+     * Specifies how many levels of nested objects are flattened into separate columns instead of being written with
+     * {@code toString()}. The columns of a flattened field are named after their path, e.g. {@code address.city},
+     * and take the place of the field. {@code 0} never flattens the field, a negative value flattens it as deep as
+     * {@link CsvWriterBuilder#flattenDepth(int)} does. Values of JDK types, enums, arrays, interfaces and fields with
+     * a converter are never flattened.
+     */
+    int flattenDepth() default -1;
+    /**
+     * Specifies the number of distinct values of the field whose escaped output is cached by each write, so repeated
+     * values, e.g. enums or status codes, are copied instead of being formatted and escaped again. Values are cached
+     * by {@code equals} and must not change while they are written. The cache evicts the least recently used values
+     * approximately and turns itself off for the rest of a write if most values are not repeated. {@code 0} disables
+     * the cache, a negative value uses the size set with {@link CsvWriterBuilder#cellCacheSize(int)}.
+     */
+    int cellCacheSize() default -1;
+}
@@ -6,10 +6,10 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * {@code @CsvIgnore} is used to mark fields that should be ignored by CsvWriter when generating CSV output.
+ * {@code @CsvIgnore} is used to mark fields, record components or getters that should be ignored by CsvWriter when generating CSV output.
  * Fields annotated with {@code @CsvIgnore} will not be included in the generated CSV.
  */
 @Retention(RetentionPolicy.RUNTIME)
-@Target(ElementType.FIELD)
+@Target({ElementType.FIELD, ElementType.METHOD})
 public @interface CsvIgnore {
 }
@@ -0,0 +1,113 @@
+package com.github.kmpk.csvwriter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link CsvMetricsListener} that aggregates the measurements of any number of writers and threads into lock-free
+ * counters and time histograms. The total I/O time compared to the total write time shows whether exports are bound
+ * by the output or by reading and formatting fields.
+ * <p>
+ * Percentiles are resolved within a factor of two.
+ */
+public final class CsvMetrics implements CsvMetricsListener {
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder ioNanos = new LongAdder();
+    private final TimeHistogram writeTimes = new TimeHistogram();
+    private final TimeHistogram flushTimes = new TimeHistogram();
+
+    @Override
+    public void onWrite(WriteResult result) {
+        writes.increment();
+        rows.add(result.rows());
+        bytes.add(result.bytes());
+        long nanos = result.elapsed().toNanos();
+        writeNanos.add(nanos);
+        writeTimes.record(nanos);
+    }
+
+    @Override
+    public void onFlush(long bytes, long nanos) {
+        flushes.increment();
+        ioNanos.add(nanos);
+        flushTimes.record(nanos);
+    }
+
+    /**
+     * Returns the number of completed writes.
+     *
+     * @return The number of writes.
+     */
+    public long writes() {
+        return writes.sum();
+    }
+
+    /**
+     * Returns the number of rows written by completed writes, excluding header rows.
+     *
+     * @return The number of rows.
+     */
+    public long rows() {
+        return rows.sum();
+    }
+
+    /**
+     * Returns the UTF-8 encoded size of the CSV written by completed writes, before compression.
+     *
+     * @return The number of bytes.
+     */
+    public long bytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * Returns the number of buffers written to the underlying outputs.
+     *
+     * @return The number of flushes.
+     */
+    public long flushes() {
+        return flushes.sum();
+    }
+
+    /**
+     * Returns the total elapsed time of completed writes.
+     *
+     * @return The total write time.
+     */
+    public Duration writeTime() {
+        return Duration.ofNanos(writeNanos.sum());
+    }
+
+    /**
+     * Returns the total time spent writing buffers to the underlying outputs.
+     *
+     * @return The total I/O time.
+     */
+    public Duration ioTime() {
+        return Duration.ofNanos(ioNanos.sum());
+    }
+
+    /**
+     * Returns the specified percentile of the elapsed times of completed writes.
+     *
+     * @param percentile The percentile between {@code 0} and {@code 100}.
+     * @return The percentile, or {@link Duration#ZERO} if nothing was written.
+     */
+    public Duration writeTimePercentile(double percentile) {
+        return writeTimes.percentile(percentile);
+    }
+
+    /**
+     * Returns the specified percentile of the times spent writing a buffer to the underlying output.
+     *
+     * @param percentile The percentile between {@code 0} and {@code 100}.
+     * @return The percentile, or {@link Duration#ZERO} if nothing was flushed.
+     */
+    public Duration flushTimePercentile(double percentile) {
+        return flushTimes.percentile(percentile);
+    }
+}
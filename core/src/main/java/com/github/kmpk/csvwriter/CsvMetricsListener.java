@@ -0,0 +1,31 @@
+package com.github.kmpk.csvwriter;
+
+/**
+ * Receives measurements of the writes of a {@link CsvWriter}, see {@link CsvWriterBuilder#metrics(CsvMetricsListener)}.
+ * {@link CsvMetrics} aggregates them into counters and histograms. Writers built without a listener don't measure
+ * anything.
+ * <p>
+ * Listeners are called on the threads doing the writes, possibly on several threads at once, so they must be
+ * thread-safe and should return quickly.
+ */
+public interface CsvMetricsListener {
+    /**
+     * Called when a write completes: a file or output is written, or a {@link CsvSink} is closed. Writes that fail
+     * are not reported.
+     *
+     * @param result The rows and bytes written and the elapsed time.
+     */
+    default void onWrite(WriteResult result) {
+    }
+
+    /**
+     * Called after a buffer of encoded rows is written to the underlying output. The time covers encoding the chars
+     * to bytes, compression and the I/O itself, so comparing it to the elapsed time of writes tells whether writing
+     * is bound by the output or by reading and formatting fields.
+     *
+     * @param bytes The UTF-8 encoded size of the buffer, before compression.
+     * @param nanos The time spent writing the buffer in nanoseconds.
+     */
+    default void onFlush(long bytes, long nanos) {
+    }
+}
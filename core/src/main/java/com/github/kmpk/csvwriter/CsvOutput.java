@@ -0,0 +1,45 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+
+/**
+ * Receives the text of a single CSV value from a {@link CsvConverter}. Appended text is written straight into the
+ * output buffer and is escaped as needed, unless the converter declares that its output never needs quoting.
+ */
+public interface CsvOutput {
+    /**
+     * Appends a char to the value.
+     *
+     * @param c The char to append.
+     * @return This output.
+     * @throws IOException If an I/O error occurs while writing to the underlying output.
+     */
+    CsvOutput append(char c) throws IOException;
+
+    /**
+     * Appends a char sequence to the value.
+     *
+     * @param s The char sequence to append.
+     * @return This output.
+     * @throws IOException If an I/O error occurs while writing to the underlying output.
+     */
+    CsvOutput append(CharSequence s) throws IOException;
+
+    /**
+     * Appends the decimal representation of a number to the value, as {@link Long#toString(long)} does.
+     *
+     * @param value The number to append.
+     * @return This output.
+     * @throws IOException If an I/O error occurs while writing to the underlying output.
+     */
+    CsvOutput append(long value) throws IOException;
+
+    /**
+     * Appends the decimal representation of a number to the value, as {@link Double#toString(double)} does.
+     *
+     * @param value The number to append.
+     * @return This output.
+     * @throws IOException If an I/O error occurs while writing to the underlying output.
+     */
+    CsvOutput append(double value) throws IOException;
+}
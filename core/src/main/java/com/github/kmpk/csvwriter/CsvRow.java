@@ -0,0 +1,36 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+
+/**
+ * The current line of CSV output, written value by value by a {@link CsvSerializer}. Values are escaped as needed and
+ * formatted like fields of the same type.
+ */
+public interface CsvRow {
+    /**
+     * Appends a string value, {@code null} is written as an empty value.
+     */
+    void value(String value) throws IOException;
+
+    void value(long value) throws IOException;
+
+    void value(double value) throws IOException;
+
+    void value(float value) throws IOException;
+
+    void value(boolean value) throws IOException;
+
+    void value(char value) throws IOException;
+
+    /**
+     * Appends a value of any type, formatted like a field of type {@code Object}. {@code null} is written as an empty
+     * value.
+     */
+    void value(Object value) throws IOException;
+
+    /**
+     * Appends a value written by the converter. {@code null} is written as an empty value without calling the
+     * converter.
+     */
+    <V> void value(V value, CsvConverter<? super V> converter) throws IOException;
+}
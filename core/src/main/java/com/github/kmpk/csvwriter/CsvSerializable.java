@@ -0,0 +1,17 @@
+package com.github.kmpk.csvwriter;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@code @CsvSerializable} marks classes and records for which the {@code csw-writer-processor} annotation processor
+ * generates a {@link CsvSerializer} at compile time. The serializer writes the same columns as the reflective
+ * {@link AccessStrategy#FIELDS} strategy, honouring {@link CsvHint} and {@link CsvIgnore}, and reads private fields
+ * through their getters.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface CsvSerializable {
+}
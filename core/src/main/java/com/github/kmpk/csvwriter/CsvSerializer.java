@@ -0,0 +1,35 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+
+/**
+ * Writes objects of a class without reflection, usually generated at compile time by the {@code csw-writer-processor}
+ * annotation processor for classes annotated with {@link CsvSerializable}.
+ * <p>
+ * Serializers are discovered with {@link java.util.ServiceLoader} from the class loader of the class they write, and
+ * must be named after it: {@code com.example.Outer_InnerCsvSerializer} writes {@code com.example.Outer.Inner}. A
+ * discovered serializer replaces the reflective schema of its class in writers built without registered converters,
+ * column selection, access strategy or lookup.
+ *
+ * @param <T> The type of the written objects.
+ */
+public interface CsvSerializer<T> {
+    /**
+     * Returns the class of the written objects.
+     */
+    Class<T> type();
+
+    /**
+     * Returns the column names, in the order the values are written.
+     */
+    String[] header();
+
+    /**
+     * Writes the values of all columns of the object to the row.
+     *
+     * @param value The object to write, never {@code null}.
+     * @param row   The row to write the values to.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    void write(T value, CsvRow row) throws IOException;
+}
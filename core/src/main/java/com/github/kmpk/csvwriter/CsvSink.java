@@ -0,0 +1,269 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.CharArrayWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A long-lived, thread-safe CSV file that rows are written to one at a time, from any number of threads.
+ * Sinks are opened with {@link CsvWriter#openSink(Class, java.io.File)}.
+ * <p>
+ * Each producing thread encodes its rows into a thread-local buffer and hands the encoded rows to a single flusher
+ * thread through a lock-free queue, so producers never contend on a lock. The flusher writes the rows in the order
+ * they were queued and flushes the file once the written rows reach a size or a time limit, see
+ * {@link CsvWriterBuilder#sinkBatchBytes(long)} and {@link CsvWriterBuilder#sinkFlushInterval(java.time.Duration)}.
+ * If the queue is full, producers block until the flusher catches up, see {@link CsvWriterBuilder#sinkCapacity(int)}.
+ * <p>
+ * Rows are only guaranteed to be in the file after {@link #flush()} or {@link #close()} returns. If writing to the
+ * file fails, the sink stops accepting rows and the failure is rethrown by later calls.
+ *
+ * @param <T> The type of the rows.
+ */
+public final class CsvSink<T> implements Flushable, Closeable {
+    private final CsvWriter csvWriter;
+    private final FieldAccessor<T> accessor;
+    private final int columns;
+    private final SinkSettings settings;
+    private final Writer writer;
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final Semaphore permits;
+    private final ThreadLocal<Encoder> encoders;
+    private final WriteTracker tracker;
+    private final long headerLines;
+    private final Thread flusher;
+    private volatile boolean sleeping;
+    private volatile boolean closed;
+    private volatile boolean terminated;
+    private volatile Throwable failure;
+
+    CsvSink(CsvWriter csvWriter, FieldAccessor<T> accessor, Writer writer, SinkSettings settings, WriteTracker tracker) {
+        this.csvWriter = csvWriter;
+        this.accessor = accessor;
+        this.columns = accessor.getFieldNames().length;
+        this.settings = settings;
+        this.writer = writer;
+        this.permits = new Semaphore(settings.capacity());
+        this.tracker = tracker;
+        this.headerLines = writer.linesWritten();
+        this.encoders = ThreadLocal.withInitial(Encoder::new);
+        this.flusher = new Thread(this::run, "csv-sink-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Encodes the row on the calling thread and queues it for writing. Blocks while the queue is full.
+     *
+     * @param row The row to write, {@code null} rows are written or ignored as configured.
+     * @throws IOException            If writing to the file has failed, or the thread is interrupted while waiting.
+     * @throws IllegalAccessException If access to the row's fields is denied.
+     * @throws IllegalStateException  If the sink is closed.
+     */
+    public void write(T row) throws IOException, IllegalAccessException {
+        checkOpen();
+        char[] encoded = encoders.get().encode(row);
+        if (encoded.length == 0) {
+            return;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for queue capacity");
+        }
+        enqueue(new Entry(encoded, null));
+    }
+
+    /**
+     * Writes all rows queued before this call and flushes the file, waiting until they are flushed.
+     *
+     * @throws IOException           If writing to the file has failed, or the thread is interrupted while waiting.
+     * @throws IllegalStateException If the sink is closed.
+     */
+    @Override
+    public void flush() throws IOException {
+        checkOpen();
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+        enqueue(new Entry(null, flushed));
+        try {
+            flushed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a flush");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to write to the sink", e.getCause());
+        }
+    }
+
+    /**
+     * Writes all queued rows, closes the file and stops the flusher thread. Rows written concurrently with closing
+     * are either written to the file or rejected with an {@link IllegalStateException}.
+     *
+     * @throws IOException If writing to the file has failed, or the thread is interrupted while waiting.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the sink");
+        }
+        checkFailure();
+    }
+
+    private void checkOpen() throws IOException {
+        checkFailure();
+        if (closed) {
+            throw new IllegalStateException("Sink is closed");
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        Throwable t = failure;
+        if (t != null) {
+            throw new IOException("Failed to write to the sink", t);
+        }
+    }
+
+    private void enqueue(Entry entry) throws IOException {
+        queue.offer(entry);
+        if (terminated && queue.remove(entry)) {
+            // the flusher has already finished its last drain, so the entry would never be written
+            if (entry.chars() != null) {
+                permits.release();
+            }
+            checkOpen();
+            throw new IllegalStateException("Sink is closed");
+        }
+        if (sleeping) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    private void run() {
+        long intervalNanos = settings.flushInterval().toNanos();
+        long lastFlush = System.nanoTime();
+        long flushedBytes = writer.bytesWritten();
+        boolean dirty = false;
+        try {
+            while (true) {
+                Entry entry = queue.poll();
+                if (entry != null) {
+                    if (entry.chars() != null) {
+                        writer.writeEncoded(entry.chars(), 1);
+                        permits.release();
+                        dirty = true;
+                    }
+                    if (entry.flushed() != null || writer.bytesWritten() - flushedBytes >= settings.batchBytes()) {
+                        writer.flush();
+                        lastFlush = System.nanoTime();
+                        flushedBytes = writer.bytesWritten();
+                        dirty = false;
+                        if (entry.flushed() != null) {
+                            entry.flushed().complete(null);
+                        }
+                    }
+                    continue;
+                }
+                long wait = intervalNanos - (System.nanoTime() - lastFlush);
+                if (dirty && wait <= 0) {
+                    writer.flush();
+                    lastFlush = System.nanoTime();
+                    flushedBytes = writer.bytesWritten();
+                    dirty = false;
+                    continue;
+                }
+                if (closed) {
+                    break;
+                }
+                sleeping = true;
+                if (queue.isEmpty() && !closed) {
+                    if (dirty) {
+                        LockSupport.parkNanos(this, wait);
+                    } else {
+                        LockSupport.park(this);
+                    }
+                }
+                sleeping = false;
+            }
+            terminated = true;
+            drain();
+            long bytes = writer.bytesWritten();
+            writer.close();
+            tracker.complete(writer.linesWritten() - headerLines, bytes);
+        } catch (Throwable t) {
+            failure = t;
+            terminated = true;
+            permits.release(settings.capacity());
+            failPending(t);
+            try {
+                writer.close();
+            } catch (IOException | RuntimeException e) {
+                t.addSuppressed(e);
+            }
+        }
+    }
+
+    /**
+     * Writes entries queued by producers that haven't seen the sink terminated yet.
+     */
+    private void drain() throws IOException {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            if (entry.chars() != null) {
+                writer.writeEncoded(entry.chars(), 1);
+                permits.release();
+            } else {
+                writer.flush();
+                entry.flushed().complete(null);
+            }
+        }
+    }
+
+    private void failPending(Throwable t) {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            if (entry.flushed() != null) {
+                entry.flushed().completeExceptionally(t);
+            }
+        }
+    }
+
+    /**
+     * An encoded row, or a flush request if {@code chars} is {@code null}.
+     */
+    private record Entry(char[] chars, CompletableFuture<Void> flushed) {
+    }
+
+    /**
+     * Encodes rows of a single producer thread.
+     */
+    private final class Encoder {
+        private final CharArrayWriter out = new CharArrayWriter();
+        private final Writer writer = csvWriter.newWriter(out);
+
+        char[] encode(T row) throws IOException, IllegalAccessException {
+            try {
+                csvWriter.writeRow(row, accessor, writer, columns);
+                writer.flush();
+                return out.toCharArray();
+            } catch (IOException | IllegalAccessException | RuntimeException e) {
+                // a partially encoded row leaves the writer in an unknown state
+                encoders.remove();
+                throw e;
+            } finally {
+                out.reset();
+            }
+        }
+    }
+}
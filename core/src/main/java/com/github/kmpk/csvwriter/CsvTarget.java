@@ -0,0 +1,22 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.File;
+import java.util.Objects;
+
+/**
+ * A file written by {@link CsvWriter#writeToFiles(java.util.Iterator, Class, java.util.List)} in the format of a writer: its delimiter,
+ * newline, header, handling of {@code null} elements, column selection, output settings and metrics listener. Array
+ * and collection values are written in the array format of the reading writer.
+ *
+ * @param file   The file to which the CSV will be written.
+ * @param format The writer whose format the file is written in.
+ */
+public record CsvTarget(File file, CsvWriter format) {
+    /**
+     * @throws NullPointerException If file or format is null.
+     */
+    public CsvTarget {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(format);
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.kmpk.csvwriter;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a completed write of a {@link CsvWriter}. Like all JFR events, it costs nothing unless a recording
+ * enables it.
+ */
+@Name("com.github.kmpk.csvwriter.Write")
+@Label("CSV Write")
+@Category("CSV Writer")
+@Description("A file or output written by a CsvWriter")
+class CsvWriteEvent extends Event {
+    @Label("Target")
+    String target;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
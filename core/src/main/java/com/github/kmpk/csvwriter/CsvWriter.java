@@ -0,0 +1,878 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.CharArrayWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * {@code CsvWriter} provides functionality to write objects to CSV files.
+ * Iterator, stream and iterable sources are consumed lazily, one row at a time, so memory usage does not depend on
+ * the number of rows written.
+ * <p>
+ * Existing files are overwritten, unless the writer was built in append mode. If the writer was built with a row or
+ * byte limit per file, the rows are written to numbered part files next to the specified file instead, see
+ * {@link CsvWriterBuilder#maxRowsPerFile(long)}.
+ */
+public class CsvWriter {
+    private final char delimiter;
+    private final String newLine;
+    private final boolean includeHeader;
+    private final boolean ignoreNullElements;
+    private final int parallelism;
+    private final int chunkSize;
+    private final OutputSettings output;
+    private final ArrayFormat arrayFormat;
+    private final SchemaResolver schema;
+    private final SinkSettings sinkSettings;
+    private final Executor asyncExecutor;
+    private final CsvMetricsListener metrics;
+    private final RowFilter<?> rowFilter;
+
+    CsvWriter(char delimiter, String newLine, boolean includeHeader, boolean ignoreNullElements) {
+        this(delimiter, newLine, includeHeader, ignoreNullElements, 1, CsvWriterBuilder.DEFAULT_CHUNK_SIZE);
+    }
+
+    CsvWriter(char delimiter, String newLine, boolean includeHeader, boolean ignoreNullElements, int parallelism, int chunkSize) {
+        this(delimiter, newLine, includeHeader, ignoreNullElements, parallelism, chunkSize, OutputSettings.DEFAULT,
+                ArrayFormat.DEFAULT, SchemaResolver.DEFAULT, SinkSettings.DEFAULT, null, null, null);
+    }
+
+    CsvWriter(char delimiter, String newLine, boolean includeHeader, boolean ignoreNullElements, int parallelism, int chunkSize,
+              OutputSettings output, ArrayFormat arrayFormat, SchemaResolver schema, SinkSettings sinkSettings,
+              Executor asyncExecutor, CsvMetricsListener metrics, RowFilter<?> rowFilter) {
+        this.delimiter = delimiter;
+        this.newLine = newLine;
+        this.includeHeader = includeHeader;
+        this.ignoreNullElements = ignoreNullElements;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.output = output;
+        this.arrayFormat = arrayFormat;
+        this.schema = schema;
+        this.sinkSettings = sinkSettings;
+        this.asyncExecutor = asyncExecutor;
+        this.metrics = metrics;
+        this.rowFilter = rowFilter;
+    }
+
+    /**
+     * Returns statistics of the cache of resolved class schemas shared by all {@code CsvWriter} instances.
+     * A class is resolved on its first write and reused by later writes of the same class.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public static CacheStats schemaCacheStats() {
+        return FieldAccessor.cacheStats();
+    }
+
+    /**
+     * Writes the elements of the specified collection to the CSV file. If the file does not exist, it will be created.
+     * If the file already exists, it will be overwritten.
+     *
+     * @param collection The collection of objects to write to the CSV.
+     * @param clazz      The class type of the objects in the collection.
+     * @param file       The file to which the CSV will be written.
+     * @param <T>        The type of elements in the collection.
+     * @throws IOException            If an I/O error occurs while writing to the file.
+     * @throws IllegalAccessException If access to the objects' fields is denied.
+     * @throws NullPointerException   If collection, clazz or file is null.
+     */
+    public <T> void writeToFile(Collection<T> collection, Class<T> clazz, File file) throws IOException, IllegalAccessException {
+        Objects.requireNonNull(collection);
+        Objects.requireNonNull(clazz);
+        Objects.requireNonNull(file);
+        FieldAccessor<T> fieldAccessor = accessor(clazz);
+        if (parallelism > 1 && !output.rolling() && !output.checkpointing()
+                && collection instanceof List<T> list && list instanceof RandomAccess) {
+            writeToFileParallel(list, fieldAccessor, file);
+            return;
+        }
+        Iterator<T> iterator = collection.iterator();
+        writeToFile(iterator, fieldAccessor, file);
+    }
+
+    /**
+     * Writes the elements of the specified collection to the CSV file. If the file does not exist, it will be created.
+     * If the file already exists, it will be overwritten.
+     *
+     * @param array The array of objects to write to the CSV.
+     * @param clazz   The class type of the objects in the array.
+     * @param file    The file to which the CSV will be written.
+     * @param <T>     The type of elements in the array.
+     * @throws IOException            If an I/O error occurs while writing to the file.
+     * @throws IllegalAccessException If access to the objects' fields is denied.
+     * @throws NullPointerException   If array, clazz or file is null.
+     */
+    public <T> void writeToFile(T[] array, Class<T> clazz, File file) throws IOException, IllegalAccessException {
+        Objects.requireNonNull(array);
+        Objects.requireNonNull(clazz);
+        Objects.requireNonNull(file);
+        FieldAccessor<T> fieldAccessor = accessor(clazz);
+        if (parallelism > 1 && !output.rolling() && !output.checkpointing()) {
+            writeToFileParallel(Arrays.asList(array), fieldAccessor, file);
+            return;
+        }
+        Iterator<T> iterator = Arrays.stream(array).iterator();
+        writeToFile(iterator, fieldAccessor, file);
+    }
+
+
+    /**
+     * Writes the elements of the specified iterable to the CSV file. If the file does not exist, it will be created.
+     * If the file already exists, it will be overwritten.
+     *
+     * @param iterable The iterable of objects to write to the CSV.
+     * @param clazz    The class type of the objects in the iterable.
+     * @param file     The file to which the CSV will be written.
+     * @param <T>      The type of elements in the iterable.
+     * @throws IOException            If an I/O error occurs while writing to the file.
+     * @throws IllegalAccessException If access to the objects' fields is denied.
+     * @throws NullPointerException   If iterable, clazz or file is null.
+     */
+    public <T> void writeToFile(Iterable<T> iterable, Class<T> clazz, File file) throws IOException, IllegalAccessException {
+        Objects.requireNonNull(iterable);
+        writeToFile(iterable.iterator(), clazz, file);
+    }
+
+    /**
+     * Writes the elements of the specified stream to the CSV file. The stream is consumed lazily and is not closed.
+     * If the file does not exist, it will be created. If the file already exists, it will be overwritten.
+     *
+     * @param stream The stream of objects to write to the CSV.
+     * @param clazz  The class type of the objects in the stream.
+     * @param file   The file to which the CSV will be written.
+     * @param <T>    The type of elements in the stream.
+     * @throws IOException            If an I/O error occurs while writing to the file.
+     * @throws IllegalAccessException If access to the objects' fields is denied.
+     * @throws NullPointerException   If stream, clazz or file is null.
+     */
+    public <T> void writeToFile(Stream<T> stream, Class<T> clazz, File file) throws IOException, IllegalAccessException {
+        Objects.requireNonNull(stream);
+        writeToFile(stream.iterator(), clazz, file);
+    }
+
+    /**
+     * Writes the remaining elements of the specified iterator to the CSV file. If the file does not exist, it will be
+     * created. If the file already exists, it will be overwritten.
+     *
+     * @param iterator The iterator over objects to write to the CSV.
+     * @param clazz    The class type of the objects returned by the iterator.
+     * @param file     The file to which the CSV will be written.
+     * @param <T>      The type of elements returned by the iterator.
+     * @throws IOException            If an I/O error occurs while writing to the file.
+     * @throws IllegalAccessException If access to the objects' fields is denied.
+     * @throws NullPointerException   If iterator, clazz or file is null.
+     */
+    public <T> void writeToFile(Iterator<T> iterator, Class<T> clazz, File file) throws IOException, IllegalAccessException {
+        Objects.requireNonNull(iterator);
+        Objects.requireNonNull(clazz);
+        Objects.requireNonNull(file);
+        FieldAccessor<T> fieldAccessor = accessor(clazz);
+        writeToFile(iterator, fieldAccessor, file);
+    }
+
+    /**
+     * Writes the remaining elements of the specified iterator as CSV to the specified {@link Appendable}.
+     * The output is flushed if it is {@link java.io.Flushable}, but not closed.
+     *
+     * @param iterator The iterator over objects to write to the CSV.
+     * @param clazz    The class type of the objects returned by the iterator.
+     * @param out      The output to which the CSV will be written.
+     * @param <T>      The type of elements returned by the iterator.
+     * @throws IOException            If an I/O error occurs while writing to the output.
+     * @throws IllegalAccessException If access to the objects' fields is denied.
+     * @throws NullPointerException   If iterator, clazz or out is null.
+     */
+    public <T> void write(Iterator<T> iterator, Class<T> clazz, Appendable out) throws IOException, IllegalAccessException {
+        Objects.requireNonNull(out);
+        java.io.Writer target = out instanceof java.io.Writer writer ? writer : new AppendableWriter(out);
+        write(iterator, clazz, target);
+    }
+
+    /**
+     * Writes the remaining elements of the specified iterator as UTF-8 encoded CSV to the specified
+     * {@link OutputStream}. The stream is flushed, but not closed.
+     *
+     * @param iterator The iterator over objects to write to the CSV.
+     * @param clazz    The class type of the objects returned by the iterator.
+     * @param out      The stream to which the CSV will be written.
+     * @param <T>      The type of elements returned by the iterator.
+     * @throws IOException            If an I/O error occurs while writing to the stream.
+     * @throws IllegalAccessException If access to the objects' fields is denied.
+     * @throws NullPointerException   If iterator, clazz or out is null.
+     */
+    public <T> void write(Iterator<T> iterator, Class<T> clazz, OutputStream out) throws IOException, IllegalAccessException {
+        Objects.requireNonNull(out);
+        write(iterator, clazz, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the remaining elements of the specified iterator as UTF-8 encoded CSV to the specified
+     * {@link WritableByteChannel}. The channel is not closed.
+     *
+     * @param iterator The iterator over objects to write to the CSV.
+     * @param clazz    The class type of the objects returned by the iterator.
+     * @param channel  The channel to which the CSV will be written.
+     * @param <T>      The type of elements returned by the iterator.
+     * @throws IOException            If an I/O error occurs while writing to the channel.
+     * @throws IllegalAccessException If access to the objects' fields is denied.
+     * @throws NullPointerException   If iterator, clazz or channel is null.
+     */
+    public <T> void write(Iterator<T> iterator, Class<T> clazz, WritableByteChannel channel) throws IOException, IllegalAccessException {
+        Objects.requireNonNull(channel);
+        write(iterator, clazz, Channels.newWriter(channel, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the specified columns to the CSV file, one row per index, without creating an object per row. The
+     * file is written with the output settings of this writer, like objects are.
+     *
+     * @param columns The columns to write.
+     * @param file    The file to which the CSV will be written.
+     * @throws IOException           If an I/O error occurs while writing to the file.
+     * @throws IllegalStateException If the writer was built with checkpoints, which columns don't support.
+     * @throws NullPointerException  If columns or file is null.
+     */
+    public void writeToFile(CsvColumns columns, File file) throws IOException {
+        Objects.requireNonNull(columns);
+        Objects.requireNonNull(file);
+        if (output.checkpointing()) {
+            throw new IllegalStateException("Columns can't be written with checkpoints");
+        }
+        WriteTracker tracker = new WriteTracker(metrics, file);
+        if (output.rolling()) {
+            writeToPartFiles(columns, file, tracker);
+            return;
+        }
+        boolean header = includeHeader(file);
+        long bytes;
+        try (Writer writer = outputWriter(output.open(file))) {
+            writeRows(columns, writer, header);
+            bytes = writer.bytesWritten();
+        }
+        tracker.complete(columns.rows(), bytes);
+    }
+
+    /**
+     * Writes the specified columns as CSV to the specified {@link Appendable}, one row per index. The output is
+     * flushed if it is {@link java.io.Flushable}, but not closed.
+     *
+     * @param columns The columns to write.
+     * @param out     The output to which the CSV will be written.
+     * @throws IOException          If an I/O error occurs while writing to the output.
+     * @throws NullPointerException If columns or out is null.
+     */
+    public void write(CsvColumns columns, Appendable out) throws IOException {
+        Objects.requireNonNull(columns);
+        Objects.requireNonNull(out);
+        java.io.Writer target = out instanceof java.io.Writer writer ? writer : new AppendableWriter(out);
+        WriteTracker tracker = new WriteTracker(metrics, target.getClass().getName());
+        Writer writer = outputWriter(target);
+        writeRows(columns, writer, includeHeader);
+        writer.flush();
+        tracker.complete(columns.rows(), writer.bytesWritten());
+    }
+
+    /**
+     * Writes the specified columns as UTF-8 encoded CSV to the specified {@link OutputStream}, one row per index.
+     * The stream is flushed, but not closed.
+     *
+     * @param columns The columns to write.
+     * @param out     The stream to which the CSV will be written.
+     * @throws IOException          If an I/O error occurs while writing to the stream.
+     * @throws NullPointerException If columns or out is null.
+     */
+    public void write(CsvColumns columns, OutputStream out) throws IOException {
+        Objects.requireNonNull(out);
+        write(columns, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the specified object to the CSV file.If the file does not exist, it will be created.
+     * If the file already exists, it will be overwritten.
+     *
+     * @param object The object to write to the CSV.
+     * @param file   The file to which the CSV will be written.
+     * @param <T>    The type of the object.
+     * @throws IOException            If an I/O error occurs while writing to the file.
+     * @throws IllegalAccessException If access to the object's fields is denied.
+     * @throws NullPointerException   If object or file is null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void writeToFile(T object, File file) throws IOException, IllegalAccessException {
+        Objects.requireNonNull(object);
+        Objects.requireNonNull(file);
+        FieldAccessor<T> fieldAccessor = accessor((Class<T>) object.getClass());
+        Iterator<T> iterator = Collections.singleton(object).iterator();
+        writeToFile(iterator, fieldAccessor, file);
+    }
+
+    /**
+     * Asynchronously writes the elements of the specified collection to the CSV file, see
+     * {@link #writeToFileAsync(Iterator, Class, File)}. The collection must not be modified until the returned
+     * future completes.
+     *
+     * @param collection The collection of objects to write to the CSV.
+     * @param clazz      The class type of the objects in the collection.
+     * @param file       The file to which the CSV will be written.
+     * @param <T>        The type of elements in the collection.
+     * @return A future completed with the result of the write once the file is closed.
+     * @throws IllegalStateException If the writer was built with part files or checkpoints, which async writes don't
+     *                               support.
+     * @throws NullPointerException  If collection, clazz or file is null.
+     */
+    public <T> CompletableFuture<WriteResult> writeToFileAsync(Collection<T> collection, Class<T> clazz, File file) {
+        Objects.requireNonNull(collection);
+        return writeToFileAsync(collection.iterator(), clazz, file);
+    }
+
+    /**
+     * Asynchronously writes the elements of the specified stream to the CSV file, see
+     * {@link #writeToFileAsync(Iterator, Class, File)}. The stream is consumed on an encoding thread and is not closed.
+     *
+     * @param stream The stream of objects to write to the CSV.
+     * @param clazz  The class type of the objects in the stream.
+     * @param file   The file to which the CSV will be written.
+     * @param <T>    The type of elements in the stream.
+     * @return A future completed with the result of the write once the file is closed.
+     * @throws IllegalStateException If the writer was built with part files or checkpoints, which async writes don't
+     *                               support.
+     * @throws NullPointerException  If stream, clazz or file is null.
+     */
+    public <T> CompletableFuture<WriteResult> writeToFileAsync(Stream<T> stream, Class<T> clazz, File file) {
+        Objects.requireNonNull(stream);
+        return writeToFileAsync(stream.iterator(), clazz, file);
+    }
+
+    /**
+     * Asynchronously writes the remaining elements of the specified iterator to the CSV file and returns without
+     * waiting for any I/O. If the file does not exist, it will be created. If the file already exists, it will be
+     * overwritten, unless the writer was built in append mode.
+     * <p>
+     * Rows are encoded on one thread into a buffer of {@link CsvWriterBuilder#chunkSize(int)} rows, while another
+     * thread writes the previously encoded buffer to the file, so encoding overlaps with I/O and at most about three
+     * chunks of rows are held in memory. The iterator is consumed on the encoding thread. Both threads are taken from
+     * the executor set with {@link CsvWriterBuilder#asyncExecutor(Executor)}.
+     *
+     * @param iterator The iterator over objects to write to the CSV.
+     * @param clazz    The class type of the objects returned by the iterator.
+     * @param file     The file to which the CSV will be written.
+     * @param <T>      The type of elements returned by the iterator.
+     * @return A future completed with the result of the write once the file is closed, or completed exceptionally
+     * with the {@link IOException} or {@link IllegalAccessException} that stopped the write.
+     * @throws IllegalStateException If the writer was built with part files or checkpoints, which async writes don't
+     *                               support.
+     * @throws NullPointerException  If iterator, clazz or file is null.
+     */
+    public <T> CompletableFuture<WriteResult> writeToFileAsync(Iterator<T> iterator, Class<T> clazz, File file) {
+        Objects.requireNonNull(iterator);
+        Objects.requireNonNull(clazz);
+        Objects.requireNonNull(file);
+        if (output.rolling() || output.checkpointing()) {
+            throw new IllegalStateException("Async writes can't write part files or checkpoints");
+        }
+        FieldAccessor<T> fieldAccessor = accessor(clazz);
+        WriteTracker tracker = new WriteTracker(metrics, file);
+        boolean header = includeHeader(file);
+        Executor executor = asyncExecutor != null ? asyncExecutor : DefaultAsyncExecutor.INSTANCE;
+        PipelinedWriter pipe = new PipelinedWriter(OutputSettings.DEFAULT_BUFFER_SIZE);
+        CompletableFuture<Void> io = CompletableFuture.runAsync(() -> {
+            try {
+                drainPipe(pipe, file);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        CompletableFuture<WriteResult> encoded = CompletableFuture.supplyAsync(() -> {
+            try {
+                return encodeToPipe(iterator, fieldAccessor, pipe, header);
+            } catch (IOException | IllegalAccessException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        return CompletableFuture.allOf(io, encoded).handle((ignored, e) -> {
+            if (e != null) {
+                // an I/O failure also stops the encoding, so it is the original cause
+                throw new CompletionException(io.isCompletedExceptionally() ? io.exceptionNow() : encoded.exceptionNow());
+            }
+            WriteResult result = encoded.join();
+            return tracker.complete(result.rows(), result.bytes());
+        });
+    }
+
+    /**
+     * Opens a thread-safe sink that writes rows to the CSV file one at a time, from any number of threads. The header
+     * row is written when the sink is opened. If the file already exists, it will be overwritten, unless the writer
+     * was built in append mode. The sink must be closed to write all rows and release the file.
+     *
+     * @param clazz The class type of the rows.
+     * @param file  The file to which the CSV will be written.
+     * @param <T>   The type of the rows.
+     * @return An open sink.
+     * @throws IOException           If an I/O error occurs while opening the file.
+     * @throws IllegalStateException If the writer was built with part files or checkpoints, which sinks don't support.
+     * @throws NullPointerException  If clazz or file is null.
+     */
+    public <T> CsvSink<T> openSink(Class<T> clazz, File file) throws IOException {
+        Objects.requireNonNull(clazz);
+        Objects.requireNonNull(file);
+        if (output.rolling() || output.checkpointing()) {
+            throw new IllegalStateException("Sinks can't write part files or checkpoints");
+        }
+        FieldAccessor<T> fieldAccessor = accessor(clazz);
+        WriteTracker tracker = new WriteTracker(metrics, file);
+        boolean header = includeHeader(file);
+        Writer writer = outputWriter(output.open(file));
+        if (header) {
+            writer.writeLine(fieldAccessor.getFieldNames());
+        }
+        return new CsvSink<>(this, fieldAccessor, writer, sinkSettings, tracker);
+    }
+
+    /**
+     * Writes the rows returned by the iterator to several files in a single pass, each in the format of its own
+     * writer. Each row is read once with the schema of this writer and, if it passes the row filter of this writer,
+     * written to all files with their delimiter, newline, header, handling of {@code null} elements and column
+     * selection, which selects from the columns of this writer. Values written as text, by a converter, as an array or
+     * collection in the array format of this writer, or with {@code toString()}, are formatted once for all files on
+     * the reading thread.
+     * <p>
+     * The rows are read on the calling thread, and each file is encoded and written on its own thread, taken from the
+     * executor set with {@link CsvWriterBuilder#asyncExecutor(Executor)}, which must be able to run a thread per file
+     * at once. A few batches of {@code chunkSize} rows are queued per file, so the reading waits for the slowest file
+     * instead of buffering rows without bound. If a file fails, the reading stops, the other files are completed with
+     * the rows read so far, and the failure is thrown.
+     *
+     * @param iterator The iterator over objects to write to the CSV files.
+     * @param clazz    The class type of the objects returned by the iterator.
+     * @param targets  The files and the writers whose format they are written in.
+     * @param <T>      The type of elements returned by the iterator.
+     * @return The results of the writes of the files, in the order of the targets.
+     * @throws IOException              If an I/O error occurs while writing to one of the files.
+     * @throws IllegalAccessException   If access to the objects' fields is denied.
+     * @throws IllegalArgumentException If a target selects a column this writer doesn't write.
+     * @throws IllegalStateException    If a target writer was built with part files or checkpoints, which fan-out
+     *                                  writes don't support.
+     * @throws NullPointerException     If iterator, clazz or targets is null.
+     */
+    public <T> List<WriteResult> writeToFiles(Iterator<T> iterator, Class<T> clazz, List<CsvTarget> targets)
+            throws IOException, IllegalAccessException {
+        Objects.requireNonNull(iterator);
+        Objects.requireNonNull(clazz);
+        for (CsvTarget target : targets) {
+            if (target.format().output.rolling() || target.format().output.checkpointing()) {
+                throw new IllegalStateException("Fan-out writes can't write part files or checkpoints");
+            }
+        }
+        FanOut<T> fanOut = new FanOut<>(accessor(clazz), rowFilter, arrayFormat, chunkSize, targets);
+        return fanOut.write(iterator, asyncExecutor != null ? asyncExecutor : DefaultAsyncExecutor.INSTANCE);
+    }
+
+    /**
+     * Writes the elements of the collection to several files in a single pass, see
+     * {@link #writeToFiles(Iterator, Class, List)}.
+     *
+     * @param collection The collection of objects to write to the CSV files.
+     * @param clazz      The class type of the objects in the collection.
+     * @param targets    The files and the writers whose format they are written in.
+     * @param <T>        The type of elements in the collection.
+     * @return The results of the writes of the files, in the order of the targets.
+     * @throws IOException              If an I/O error occurs while writing to one of the files.
+     * @throws IllegalAccessException   If access to the objects' fields is denied.
+     * @throws IllegalArgumentException If a target selects a column this writer doesn't write.
+     * @throws IllegalStateException    If a target writer was built with part files or checkpoints, which fan-out
+     *                                  writes don't support.
+     * @throws NullPointerException     If collection, clazz or targets is null.
+     */
+    public <T> List<WriteResult> writeToFiles(Collection<T> collection, Class<T> clazz, List<CsvTarget> targets)
+            throws IOException, IllegalAccessException {
+        return writeToFiles(collection.iterator(), clazz, targets);
+    }
+
+    /**
+     * Returns the columns selected on the builder of this writer.
+     */
+    ColumnSelection columns() {
+        return schema.columns();
+    }
+
+    boolean ignoresNullElements() {
+        return ignoreNullElements;
+    }
+
+    CsvMetricsListener metrics() {
+        return metrics;
+    }
+
+    /**
+     * Opens a writer of the file with the output settings of this writer.
+     */
+    Writer openFile(File file) throws IOException {
+        return outputWriter(output.open(file));
+    }
+
+    /**
+     * Returns a writer encoding into memory.
+     */
+    Writer newWriter(java.io.Writer out) {
+        return new Writer(out, delimiter, newLine, arrayFormat);
+    }
+
+    /**
+     * Returns a writer of a final output, which reports flushes to the metrics listener.
+     */
+    private Writer outputWriter(java.io.Writer out) {
+        return new Writer(out, delimiter, newLine, arrayFormat, metrics);
+    }
+
+    /**
+     * Returns the schema of the class with the access strategy and converters of this writer applied.
+     */
+    private <T> FieldAccessor<T> accessor(Class<T> clazz) {
+        return schema.resolve(clazz);
+    }
+
+    private <T> void write(Iterator<T> iterator, Class<T> clazz, java.io.Writer out) throws IOException, IllegalAccessException {
+        Objects.requireNonNull(iterator);
+        Objects.requireNonNull(clazz);
+        FieldAccessor<T> fieldAccessor = accessor(clazz);
+        WriteTracker tracker = new WriteTracker(metrics, out.getClass().getName());
+        Writer writer = outputWriter(out);
+        long rows = writeRows(iterator, fieldAccessor, writer, includeHeader);
+        writer.flush();
+        tracker.complete(rows, writer.bytesWritten());
+    }
+
+    private void drainPipe(PipelinedWriter pipe, File file) throws IOException {
+        try (java.io.Writer out = output.open(file)) {
+            pipe.drainTo(out);
+        } catch (IOException | RuntimeException e) {
+            pipe.fail();
+            throw e;
+        }
+    }
+
+    /**
+     * Encodes rows into the pipe, handing a buffer over to the I/O thread every {@code chunkSize} rows. Returns the
+     * number of rows and bytes written, with no elapsed time.
+     */
+    private <T> WriteResult encodeToPipe(Iterator<T> iterator, FieldAccessor<T> accessor, PipelinedWriter pipe,
+                                         boolean header) throws IOException, IllegalAccessException {
+        try (Writer writer = outputWriter(pipe)) {
+            if (header) {
+                writer.writeLine(accessor.getFieldNames());
+            }
+            long headerLines = writer.linesWritten();
+            int columns = accessor.getFieldNames().length;
+            long rows = 0;
+            while (iterator.hasNext()) {
+                writeRow(iterator.next(), accessor, writer, columns);
+                if (++rows % chunkSize == 0) {
+                    writer.flush();
+                }
+            }
+            return new WriteResult(writer.linesWritten() - headerLines, writer.bytesWritten(), Duration.ZERO);
+        }
+    }
+
+    private <T> void writeToFile(Iterator<T> iterator, FieldAccessor<T> accessor, File file) throws IOException, IllegalAccessException {
+        WriteTracker tracker = new WriteTracker(metrics, file);
+        if (output.rolling()) {
+            writeToPartFiles(iterator, accessor, file, tracker);
+            return;
+        }
+        if (output.checkpointing()) {
+            writeCheckpointed(iterator, accessor, file, tracker);
+            return;
+        }
+        boolean header = includeHeader(file);
+        long rows;
+        long bytes;
+        try (Writer writer = outputWriter(output.open(file))) {
+            rows = writeRows(iterator, accessor, writer, header);
+            bytes = writer.bytesWritten();
+        }
+        tracker.complete(rows, bytes);
+    }
+
+    /**
+     * Writes rows to consecutive part files, starting a new part whenever the current one reaches the row or byte
+     * limit. At least one part is written, even if there are no rows.
+     */
+    private <T> void writeToPartFiles(Iterator<T> iterator, FieldAccessor<T> accessor, File file, WriteTracker tracker)
+            throws IOException, IllegalAccessException {
+        int columns = accessor.getFieldNames().length;
+        int part = 0;
+        long rows = 0;
+        long bytes = 0;
+        do {
+            File partFile = OutputSettings.partFile(file, ++part);
+            try (Writer writer = outputWriter(output.open(partFile))) {
+                if (includeHeader) {
+                    writer.writeLine(accessor.getFieldNames());
+                }
+                long headerLines = writer.linesWritten();
+                while (iterator.hasNext() && !output.partFull(writer.linesWritten() - headerLines, writer.bytesWritten())) {
+                    writeRow(iterator.next(), accessor, writer, columns);
+                }
+                rows += writer.linesWritten() - headerLines;
+                bytes += writer.bytesWritten();
+            }
+        } while (iterator.hasNext());
+        tracker.complete(rows, bytes);
+    }
+
+    /**
+     * Writes the rows of the columns to consecutive part files, like {@link #writeToPartFiles(Iterator, FieldAccessor,
+     * File, WriteTracker)} does.
+     */
+    private void writeToPartFiles(CsvColumns columns, File file, WriteTracker tracker) throws IOException {
+        int part = 0;
+        int row = 0;
+        long bytes = 0;
+        do {
+            File partFile = OutputSettings.partFile(file, ++part);
+            try (Writer writer = outputWriter(output.open(partFile))) {
+                if (includeHeader) {
+                    writer.writeLine(columns.names());
+                }
+                long headerLines = writer.linesWritten();
+                while (row < columns.rows() && !output.partFull(writer.linesWritten() - headerLines, writer.bytesWritten())) {
+                    columns.writeRow(row++, writer);
+                    writer.endLine();
+                }
+                bytes += writer.bytesWritten();
+            }
+        } while (row < columns.rows());
+        tracker.complete(row, bytes);
+    }
+
+    /**
+     * Writes rows, taking a checkpoint every {@code checkpointRows} source elements. If the file has a checkpoint,
+     * the file is truncated to it, the elements it covers are skipped and the remaining rows are appended.
+     */
+    private <T> void writeCheckpointed(Iterator<T> iterator, FieldAccessor<T> accessor, File file, WriteTracker tracker)
+            throws IOException, IllegalAccessException {
+        Checkpoint checkpoint = Checkpoint.read(file);
+        OutputSettings settings = output;
+        boolean header;
+        long consumed = 0;
+        if (checkpoint != null) {
+            truncate(file, checkpoint.bytes());
+            skip(iterator, checkpoint.rows());
+            settings = output.appending();
+            header = false;
+            consumed = checkpoint.rows();
+        } else {
+            header = includeHeader(file);
+        }
+        int columns = accessor.getFieldNames().length;
+        long lines;
+        long bytes;
+        java.io.Writer out = settings.open(file);
+        try (Writer writer = outputWriter(out)) {
+            if (header) {
+                writer.writeLine(accessor.getFieldNames());
+            }
+            long headerLines = writer.linesWritten();
+            checkpoint(writer, (Syncable) out, file, consumed);
+            while (iterator.hasNext()) {
+                writeRow(iterator.next(), accessor, writer, columns);
+                if (++consumed % output.checkpointRows() == 0) {
+                    checkpoint(writer, (Syncable) out, file, consumed);
+                }
+            }
+            writer.flush();
+            ((Syncable) out).sync();
+            lines = writer.linesWritten() - headerLines;
+            bytes = writer.bytesWritten();
+        }
+        Checkpoint.delete(file);
+        tracker.complete(lines, bytes);
+    }
+
+    private static void checkpoint(Writer writer, Syncable out, File file, long rows) throws IOException {
+        writer.flush();
+        new Checkpoint(rows, out.sync()).write(file);
+    }
+
+    private static void truncate(File file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            if (channel.size() < size) {
+                throw new IOException("File " + file + " is shorter than its checkpoint");
+            }
+            channel.truncate(size);
+        }
+    }
+
+    private static void skip(Iterator<?> iterator, long rows) {
+        for (long i = 0; i < rows; i++) {
+            if (!iterator.hasNext()) {
+                throw new IllegalStateException("The checkpoint covers " + rows + " rows, but there are only " + i);
+            }
+            iterator.next();
+        }
+    }
+
+    boolean includeHeader(File file) {
+        return includeHeader && !(output.append() && file.length() > 0);
+    }
+
+    /**
+     * Splits the list into chunks of {@code chunkSize} rows and encodes them on a pool of {@code parallelism}
+     * threads. Encoded chunks are written to the file in their original order. At most {@code 2 * parallelism}
+     * chunks are in flight at any time, which bounds the memory held by encoded but not yet written chunks.
+     */
+    private <T> void writeToFileParallel(List<T> list, FieldAccessor<T> accessor, File file) throws IOException, IllegalAccessException {
+        WriteTracker tracker = new WriteTracker(metrics, file);
+        boolean header = includeHeader(file);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long rows;
+        long bytes;
+        try (Writer writer = outputWriter(output.open(file))) {
+            if (header) {
+                writer.writeLine(accessor.getFieldNames());
+            }
+            long headerLines = writer.linesWritten();
+            int columns = accessor.getFieldNames().length;
+            int size = list.size();
+            int maxInFlight = parallelism * 2;
+            ArrayDeque<Future<EncodedChunk>> inFlight = new ArrayDeque<>(maxInFlight);
+            int from = 0;
+            while (from < size || !inFlight.isEmpty()) {
+                while (from < size && inFlight.size() < maxInFlight) {
+                    List<T> chunk = list.subList(from, Math.min(from + chunkSize, size));
+                    inFlight.add(pool.submit(() -> encodeChunk(chunk, accessor, columns)));
+                    from += chunk.size();
+                }
+                EncodedChunk encoded = awaitChunk(inFlight.poll());
+                writer.writeEncoded(encoded.chars(), encoded.bytes(), encoded.lines());
+            }
+            rows = writer.linesWritten() - headerLines;
+            bytes = writer.bytesWritten();
+        } finally {
+            pool.shutdownNow();
+        }
+        tracker.complete(rows, bytes);
+    }
+
+    private <T> EncodedChunk encodeChunk(List<T> chunk, FieldAccessor<T> accessor, int columns) throws IOException, IllegalAccessException {
+        CharArrayWriter out = new CharArrayWriter();
+        Writer writer = newWriter(out);
+        for (T row : chunk) {
+            writeRow(row, accessor, writer, columns);
+        }
+        writer.flush();
+        return new EncodedChunk(out, writer.bytesWritten(), writer.linesWritten());
+    }
+
+    private static EncodedChunk awaitChunk(Future<EncodedChunk> future) throws IOException, IllegalAccessException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an encoded chunk");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof IllegalAccessException illegalAccessException) {
+                throw illegalAccessException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Writes the header, if requested, and the rows, returning the number of written rows.
+     */
+    private <T> long writeRows(Iterator<T> iterator, FieldAccessor<T> accessor, Writer writer, boolean header) throws IOException, IllegalAccessException {
+        if (header) {
+            writer.writeLine(accessor.getFieldNames());
+        }
+        long headerLines = writer.linesWritten();
+        int columns = accessor.getFieldNames().length;
+        while (iterator.hasNext()) {
+            writeRow(iterator.next(), accessor, writer, columns);
+        }
+        return writer.linesWritten() - headerLines;
+    }
+
+    /**
+     * Writes the header, if requested, and all rows of the columns.
+     */
+    private void writeRows(CsvColumns columns, Writer writer, boolean header) throws IOException {
+        if (header) {
+            writer.writeLine(columns.names());
+        }
+        for (int row = 0; row < columns.rows(); row++) {
+            columns.writeRow(row, writer);
+            writer.endLine();
+        }
+    }
+
+    /**
+     * Writes the row, unless it is rejected by the row filter, before any of its columns are read.
+     */
+    <T> void writeRow(T row, FieldAccessor<T> accessor, Writer writer, int columns) throws IOException, IllegalAccessException {
+        if (row != null) {
+            if (rowFilter != null && !rowFilter.accepts(row)) {
+                return;
+            }
+            accessor.writeFieldValues(row, writer);
+        } else if (!ignoreNullElements) {
+            for (int i = 0; i < columns; i++) {
+                writer.value((String) null);
+            }
+        }
+        writer.endLine();
+    }
+
+    private record EncodedChunk(CharArrayWriter chars, long bytes, long lines) {
+    }
+
+    /**
+     * Threads of async writes of writers built without an executor. Threads are created on demand, so the encoding
+     * and I/O threads of a write never wait for each other to be scheduled, and don't keep the JVM alive.
+     */
+    private static final class DefaultAsyncExecutor {
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "csv-async-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,587 @@
+package com.github.kmpk.csvwriter;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+
+/**
+ * CsvWriterBuilder provides an interface for building {@link CsvWriter} instances with customizable settings.
+ */
+public class CsvWriterBuilder {
+    static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private char delimiter = ',';
+    private String newLine = "\r\n";
+    private boolean includeHeader = true;
+    private boolean ignoreNullElements = true;
+    private int parallelism = 1;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private OutputBackend outputBackend = OutputBackend.STREAM;
+    private int bufferSize = OutputSettings.DEFAULT_BUFFER_SIZE;
+    private boolean fsyncOnClose = false;
+    private long mappedRegionSize = OutputSettings.DEFAULT_MAPPED_REGION_SIZE;
+    private boolean append = false;
+    private long maxRowsPerFile = 0;
+    private long maxBytesPerFile = 0;
+    private Compression compression = Compression.NONE;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private int compressionBufferSize = CompressionSettings.DEFAULT_BUFFER_SIZE;
+    private int compressionThreads = 1;
+    private ArrayFormat arrayFormat = ArrayFormat.DEFAULT;
+    private final Map<Class<?>, CsvConverter<?>> converters = new LinkedHashMap<>();
+    private int sinkCapacity = SinkSettings.DEFAULT_CAPACITY;
+    private long sinkBatchBytes = SinkSettings.DEFAULT_BATCH_BYTES;
+    private Duration sinkFlushInterval = SinkSettings.DEFAULT_FLUSH_INTERVAL;
+    private Executor asyncExecutor;
+    private CsvMetricsListener metrics;
+    private AccessStrategy accessStrategy = AccessStrategy.FIELDS;
+    private MethodHandles.Lookup lookup;
+    private List<String> columnNames;
+    private List<Integer> columnOrders;
+    private RowFilter<?> rowFilter;
+    private long checkpointRows = 0;
+    private int flattenDepth = 0;
+    private List<Class<?>> subtypes;
+    private int cellCacheSize = 0;
+
+    /**
+     * Sets the delimiter character used in the CSV.
+     *
+     * @param delimiter The delimiter character.
+     * @return This instance.
+     */
+    public CsvWriterBuilder delimiter(char delimiter) {
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Sets the newline character sequence used in the CSV.
+     *
+     * @param newLine The newline character sequence.
+     * @return This instance.
+     */
+    public CsvWriterBuilder newLine(String newLine) {
+        this.newLine = newLine;
+        return this;
+    }
+
+    /**
+     * Sets whether to include a header row in the CSV.
+     *
+     * @param includeHeader {@code true} to include a header row, {@code false} otherwise.
+     * @return This instance.
+     */
+    public CsvWriterBuilder includeHeader(boolean includeHeader) {
+        this.includeHeader = includeHeader;
+        return this;
+    }
+
+    /**
+     * Sets whether to ignore null elements when writing to the CSV.
+     *
+     * @param ignoreNullElements {@code true} to ignore null elements, {@code false} otherwise.
+     * @return This instance.
+     */
+    public CsvWriterBuilder ignoreNullElements(boolean ignoreNullElements) {
+        this.ignoreNullElements = ignoreNullElements;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads used to encode rows. With a value greater than 1, lists and arrays are split into
+     * chunks that are encoded in parallel and written to the file in their original order. Other sources are always
+     * written on the calling thread.
+     *
+     * @param parallelism The number of encoding threads, 1 to encode on the calling thread.
+     * @return This instance.
+     */
+    public CsvWriterBuilder parallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets the number of rows in a chunk encoded by a single thread in parallel mode.
+     *
+     * @param chunkSize The number of rows per chunk.
+     * @return This instance.
+     */
+    public CsvWriterBuilder chunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Sets how array and collection fields are formatted. Elements are written one by one, joined with the separator
+     * and enclosed in the prefix and suffix. The default format is the one of {@link java.util.Arrays#toString},
+     * e.g. {@code [1, 2, 3]}.
+     *
+     * @param prefix    The text written before the first element.
+     * @param separator The text written between elements.
+     * @param suffix    The text written after the last element.
+     * @return This instance.
+     */
+    public CsvWriterBuilder arrayFormat(String prefix, String separator, String suffix) {
+        this.arrayFormat = new ArrayFormat(prefix, separator, suffix);
+        return this;
+    }
+
+    /**
+     * Registers a converter for fields of the specified type. Converters of primitive fields are registered for
+     * their wrapper types, e.g. {@code Double.class} for {@code double} fields. Fields with a
+     * {@link CsvHint#converter()} use that converter instead. Registering another converter for the same type
+     * replaces the previous one.
+     *
+     * @param type      The field type.
+     * @param converter The converter of the field values.
+     * @param <T>       The field type.
+     * @return This instance.
+     */
+    public <T> CsvWriterBuilder converter(Class<T> type, CsvConverter<? super T> converter) {
+        this.converters.put(type, converter);
+        return this;
+    }
+
+    /**
+     * Sets the backend used to write CSV files.
+     *
+     * @param outputBackend The output backend.
+     * @return This instance.
+     */
+    public CsvWriterBuilder outputBackend(OutputBackend outputBackend) {
+        this.outputBackend = outputBackend;
+        return this;
+    }
+
+    /**
+     * Sets the size of the output buffer in bytes.
+     *
+     * @param bufferSize The buffer size in bytes.
+     * @return This instance.
+     */
+    public CsvWriterBuilder bufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Sets whether written data is forced to the storage device before a CSV file is closed.
+     *
+     * @param fsyncOnClose {@code true} to fsync on close, {@code false} otherwise.
+     * @return This instance.
+     */
+    public CsvWriterBuilder fsyncOnClose(boolean fsyncOnClose) {
+        this.fsyncOnClose = fsyncOnClose;
+        return this;
+    }
+
+    /**
+     * Sets the size of a single memory-mapped region for {@link OutputBackend#MAPPED}. Files larger than a region are
+     * mapped region by region, so the expected file size is a good value.
+     *
+     * @param mappedRegionSize The region size in bytes, at most {@link Integer#MAX_VALUE}.
+     * @return This instance.
+     */
+    public CsvWriterBuilder mappedRegionSize(long mappedRegionSize) {
+        this.mappedRegionSize = mappedRegionSize;
+        return this;
+    }
+
+    /**
+     * Sets whether rows are appended to existing files instead of overwriting them. The header row is only written
+     * to files that are empty or don't exist yet.
+     *
+     * @param append {@code true} to append to existing files, {@code false} to overwrite them.
+     * @return This instance.
+     */
+    public CsvWriterBuilder append(boolean append) {
+        this.append = append;
+        return this;
+    }
+
+    /**
+     * Splits the output into part files of at most the specified number of rows. Parts are named after the target
+     * file with a 1-based index, e.g. {@code export-00001.csv}, {@code export-00002.csv} for {@code export.csv},
+     * and each part starts with its own header row.
+     *
+     * @param maxRowsPerFile The maximum number of rows per part file, {@code 0} for no limit.
+     * @return This instance.
+     */
+    public CsvWriterBuilder maxRowsPerFile(long maxRowsPerFile) {
+        this.maxRowsPerFile = maxRowsPerFile;
+        return this;
+    }
+
+    /**
+     * Splits the output into part files of about the specified size. A new part is started once the current part
+     * reaches the size, so a part can exceed it by at most one row. Parts are named the same way as for
+     * {@link #maxRowsPerFile(long)}.
+     *
+     * @param maxBytesPerFile The size in bytes after which a new part file is started, {@code 0} for no limit.
+     * @return This instance.
+     */
+    public CsvWriterBuilder maxBytesPerFile(long maxBytesPerFile) {
+        this.maxBytesPerFile = maxBytesPerFile;
+        return this;
+    }
+
+    /**
+     * Sets the compression applied to written files. Compressed files are always written with the
+     * {@link OutputBackend#STREAM} backend. Byte limits set with {@link #maxBytesPerFile(long)} apply to the
+     * uncompressed size.
+     *
+     * @param compression The compression format.
+     * @return This instance.
+     */
+    public CsvWriterBuilder compression(Compression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Sets the compression level.
+     *
+     * @param compressionLevel The level from 0 (no compression) to 9 (best compression), or -1 for the default level.
+     * @return This instance.
+     */
+    public CsvWriterBuilder compressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * Sets the size of the compressor buffer in bytes. With several compression threads, this is also the size of a
+     * block compressed by a single thread.
+     *
+     * @param compressionBufferSize The buffer size in bytes.
+     * @return This instance.
+     */
+    public CsvWriterBuilder compressionBufferSize(int compressionBufferSize) {
+        this.compressionBufferSize = compressionBufferSize;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads compressing independent blocks of a file in parallel. The output is still a single
+     * standard gzip or zlib stream.
+     *
+     * @param compressionThreads The number of compression threads, 1 to compress on the writing thread.
+     * @return This instance.
+     */
+    public CsvWriterBuilder compressionThreads(int compressionThreads) {
+        this.compressionThreads = compressionThreads;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of rows queued in a {@link CsvSink} but not yet written. Producers writing to a full
+     * sink block until the flusher thread catches up.
+     *
+     * @param sinkCapacity The maximum number of queued rows.
+     * @return This instance.
+     */
+    public CsvWriterBuilder sinkCapacity(int sinkCapacity) {
+        this.sinkCapacity = sinkCapacity;
+        return this;
+    }
+
+    /**
+     * Sets the number of bytes a {@link CsvSink} writes before it flushes the file.
+     *
+     * @param sinkBatchBytes The number of bytes written between flushes.
+     * @return This instance.
+     */
+    public CsvWriterBuilder sinkBatchBytes(long sinkBatchBytes) {
+        this.sinkBatchBytes = sinkBatchBytes;
+        return this;
+    }
+
+    /**
+     * Sets the maximum time rows written by a {@link CsvSink} stay in its buffers before the file is flushed.
+     *
+     * @param sinkFlushInterval The maximum time between a write and the next flush.
+     * @return This instance.
+     */
+    public CsvWriterBuilder sinkFlushInterval(Duration sinkFlushInterval) {
+        this.sinkFlushInterval = sinkFlushInterval;
+        return this;
+    }
+
+    /**
+     * Sets the executor running the encoding and I/O threads of async writes. Each write runs two tasks that wait for
+     * each other, so the executor must be able to run them at the same time. By default, a shared pool of daemon
+     * threads created on demand is used.
+     *
+     * @param asyncExecutor The executor of async writes, {@code null} for the default pool.
+     * @return This instance.
+     */
+    public CsvWriterBuilder asyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+        return this;
+    }
+
+    /**
+     * Sets the listener receiving measurements of writes and flushes, e.g. a {@link CsvMetrics}. Writes and flushes
+     * are also reported as JFR events, whether a listener is set or not.
+     *
+     * @param metrics The metrics listener, {@code null} to measure nothing.
+     * @return This instance.
+     */
+    public CsvWriterBuilder metrics(CsvMetricsListener metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Sets how the columns of classes are read, see {@link AccessStrategy}. Records are always read through their
+     * component accessors.
+     *
+     * @param accessStrategy The access strategy, {@link AccessStrategy#FIELDS} by default.
+     * @return This instance.
+     */
+    public CsvWriterBuilder accessStrategy(AccessStrategy accessStrategy) {
+        this.accessStrategy = accessStrategy;
+        return this;
+    }
+
+    /**
+     * Sets the lookup used to read fields and call getters, e.g. {@code MethodHandles.lookup()} of the caller. With a
+     * lookup, classes in modules that are not open to this library can be written without
+     * {@code setAccessible(true)}: the lookup gets private access to each class through
+     * {@link MethodHandles#privateLookupIn(Class, MethodHandles.Lookup)} where the modules allow it, otherwise it is
+     * used as is.
+     *
+     * @param lookup The lookup, {@code null} to make members accessible with {@code setAccessible}.
+     * @return This instance.
+     */
+    public CsvWriterBuilder lookup(MethodHandles.Lookup lookup) {
+        this.lookup = lookup;
+        return this;
+    }
+
+    /**
+     * Flattens nested objects into separate columns named after their path, e.g. {@code address.city}, instead of
+     * writing them with {@code toString()}. Nested objects are flattened up to the specified number of levels, fields
+     * can override the depth with {@link CsvHint#flattenDepth()}. Values of JDK types, enums, arrays, interfaces and
+     * types with a registered converter are not flattened. The readers of flattened columns are resolved once per
+     * class, and a {@code null} nested object is written as empty values.
+     *
+     * @param flattenDepth The number of levels to flatten, {@code 0} to flatten only hinted fields.
+     * @return This instance.
+     */
+    public CsvWriterBuilder flattenDepth(int flattenDepth) {
+        this.flattenDepth = flattenDepth;
+        return this;
+    }
+
+    /**
+     * Caches the escaped output of repeated values of each column, so columns with few distinct values, e.g. enums,
+     * status codes or repeated strings, are copied instead of being formatted and escaped on every row. Each write
+     * keeps a cache of up to {@code cellCacheSize} values per column, compared with {@code equals}, evicts the least
+     * recently used values approximately, and turns the cache of a column off if most of its first values are not
+     * repeated. Only columns of Strings, enums, boxed primitives and {@code java.time} values are cached, since
+     * values of other types may change after they are cached; fields of any type can be cached and can override the
+     * size with {@link CsvHint#cellCacheSize()}. Generated serializers don't use the caches.
+     *
+     * @param cellCacheSize The number of values cached per column, {@code 0} to cache only hinted fields.
+     * @return This instance.
+     */
+    public CsvWriterBuilder cellCacheSize(int cellCacheSize) {
+        this.cellCacheSize = cellCacheSize;
+        return this;
+    }
+
+    /**
+     * Writes each row with the columns of its runtime class instead of the columns of the written class. The header
+     * is the union of the columns of the written class, the specified subtypes and, if the written class or a
+     * subtype is sealed, their permitted subclasses. Rows are written with empty values for the columns their class
+     * lacks, and rows of other subclasses with the columns they share with the union. Column selections apply to
+     * the union.
+     * <p>
+     * The readers of each class are resolved on its first row and found through a small per-schema cache of the
+     * most recent classes afterwards, so mixed collections are written in one pass without a lookup per row.
+     *
+     * @param subtypes The subtypes whose columns are written, in addition to the permitted subclasses of sealed
+     *                 types. Writing a class of which one of them is not a subtype fails with an
+     *                 {@link IllegalArgumentException}.
+     * @return This instance.
+     */
+    public CsvWriterBuilder polymorphic(Class<?>... subtypes) {
+        this.subtypes = List.of(subtypes);
+        return this;
+    }
+
+    /**
+     * Selects the columns to write by name, in the order they are written. Columns that are not selected are never
+     * read. Replaces any selection made with {@link #columnOrders(int...)}. Writing a class that lacks one of the
+     * columns fails with an {@link IllegalArgumentException}.
+     *
+     * @param names The names of the columns, as they appear in the header, or {@code null} to write all columns.
+     * @return This instance.
+     */
+    public CsvWriterBuilder columns(String... names) {
+        this.columnNames = names == null ? null : Arrays.asList(names.clone());
+        this.columnOrders = null;
+        return this;
+    }
+
+    /**
+     * Selects the columns to write by their {@link CsvHint#order()}, in the order they are written. All columns with
+     * one of the orders are written, columns with the same order in their usual order. Columns that are not selected
+     * are never read. Replaces any selection made with {@link #columns(String...)}. Writing a class without a column
+     * of one of the orders fails with an {@link IllegalArgumentException}.
+     *
+     * @param orders The orders of the columns, or {@code null} to write all columns.
+     * @return This instance.
+     */
+    public CsvWriterBuilder columnOrders(int... orders) {
+        this.columnOrders = orders == null ? null : Arrays.stream(orders).boxed().toList();
+        this.columnNames = null;
+        return this;
+    }
+
+    /**
+     * Sets a filter of the rows of the specified type to write. Rejected rows are skipped before any of their columns
+     * are read, and are not counted as written. Rows of other types and {@code null} rows are not passed to the
+     * filter and are always written.
+     *
+     * @param type      The type of the rows to filter, including its subtypes.
+     * @param rowFilter The predicate accepting the rows to write, {@code null} to write all rows.
+     * @param <T>       The type of the rows to filter.
+     * @return This instance.
+     */
+    public <T> CsvWriterBuilder rowFilter(Class<T> type, Predicate<? super T> rowFilter) {
+        this.rowFilter = rowFilter == null ? null : new RowFilter<>(type, rowFilter);
+        return this;
+    }
+
+    /**
+     * Makes writes to files resumable. Every {@code checkpointRows} rows, the written data is forced to the storage
+     * device and the number of rows and the file size are recorded in {@code <file>.checkpoint} next to the file.
+     * If a write fails, writing the same rows to the same file again truncates the file to the last checkpoint and
+     * continues from there: the rows before the checkpoint are skipped without being read. The checkpoint is
+     * deleted once the write completes.
+     * <p>
+     * Checkpoints are taken by {@code writeToFile}, which then always encodes on the calling thread. They require
+     * uncompressed files written with the {@link OutputBackend#STREAM} or {@link OutputBackend#CHANNEL} backend, and
+     * can't be combined with part files, sinks or async writes.
+     *
+     * @param checkpointRows The number of rows between checkpoints, {@code 0} to disable checkpoints.
+     * @return This instance.
+     */
+    public CsvWriterBuilder checkpointEvery(long checkpointRows) {
+        this.checkpointRows = checkpointRows;
+        return this;
+    }
+
+    /**
+     * Constructs a {@link CsvWriter} instance with the specified settings.
+     *
+     * @return A {@link CsvWriter} instance configured with the specified settings.
+     * @throws IllegalArgumentException If the settings are invalid.
+     */
+    public CsvWriter build() {
+        if (delimiter == '"') {
+            throw new IllegalArgumentException("Can't use double quotes as delimiter");
+        }
+        if (newLine == null) {
+            throw new IllegalArgumentException("Newline char sequence must be specified");
+        }
+        if (newLine.indexOf(delimiter) != -1 || newLine.indexOf('"') != -1) {
+            throw new IllegalArgumentException("Newline char sequence must not contain delimiter or double quotes");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        if (arrayFormat.prefix() == null || arrayFormat.separator() == null || arrayFormat.suffix() == null) {
+            throw new IllegalArgumentException("Array prefix, separator and suffix must be specified");
+        }
+        if (converters.containsKey(null) || converters.containsValue(null)) {
+            throw new IllegalArgumentException("Converter type and converter must be specified");
+        }
+        if (outputBackend == null) {
+            throw new IllegalArgumentException("Output backend must be specified");
+        }
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("Buffer size must be at least 16 bytes");
+        }
+        if (mappedRegionSize < 16 || mappedRegionSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Mapped region size must be between 16 bytes and 2GB");
+        }
+        if (maxRowsPerFile < 0 || maxBytesPerFile < 0) {
+            throw new IllegalArgumentException("Part file limits must not be negative");
+        }
+        if (append && (maxRowsPerFile > 0 || maxBytesPerFile > 0)) {
+            throw new IllegalArgumentException("Append mode can't be combined with part files");
+        }
+        if (compression == null) {
+            throw new IllegalArgumentException("Compression must be specified");
+        }
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9");
+        }
+        if (compressionBufferSize < 1 || compressionThreads < 1) {
+            throw new IllegalArgumentException("Compression buffer size and threads must be positive");
+        }
+        if (compression != Compression.NONE && outputBackend != OutputBackend.STREAM) {
+            throw new IllegalArgumentException("Compressed files can only be written with the STREAM backend");
+        }
+        if (compression == Compression.DEFLATE && append) {
+            throw new IllegalArgumentException("Deflate streams can't be appended to, use gzip instead");
+        }
+        if (sinkCapacity < 1 || sinkBatchBytes < 1) {
+            throw new IllegalArgumentException("Sink capacity and batch size must be positive");
+        }
+        if (sinkFlushInterval == null || sinkFlushInterval.isNegative() || sinkFlushInterval.isZero()) {
+            throw new IllegalArgumentException("Sink flush interval must be positive");
+        }
+        if (cellCacheSize < 0) {
+            throw new IllegalArgumentException("Cell cache size must not be negative");
+        }
+        if (flattenDepth < 0) {
+            throw new IllegalArgumentException("Flatten depth must not be negative");
+        }
+        if (checkpointRows < 0) {
+            throw new IllegalArgumentException("Checkpoint interval must not be negative");
+        }
+        if (checkpointRows > 0 && (compression != Compression.NONE || outputBackend == OutputBackend.MAPPED
+                || maxRowsPerFile > 0 || maxBytesPerFile > 0)) {
+            throw new IllegalArgumentException("Checkpoints require uncompressed single files written with the STREAM or CHANNEL backend");
+        }
+        if (accessStrategy == null) {
+            throw new IllegalArgumentException("Access strategy must be specified");
+        }
+        if (columnNames != null && (columnNames.contains(null) || new HashSet<>(columnNames).size() < columnNames.size())) {
+            throw new IllegalArgumentException("Selected column names must be specified and distinct");
+        }
+        if (columnOrders != null && new HashSet<>(columnOrders).size() < columnOrders.size()) {
+            throw new IllegalArgumentException("Selected column orders must be distinct");
+        }
+        if (rowFilter != null && rowFilter.type() == null) {
+            throw new IllegalArgumentException("Row filter type must be specified");
+        }
+        SchemaResolver schema = new SchemaResolver(new Converters(converters), accessStrategy, lookup,
+                new ColumnSelection(columnNames, columnOrders), flattenDepth, subtypes, cellCacheSize);
+        return new CsvWriter(delimiter, newLine, includeHeader, ignoreNullElements, parallelism, chunkSize, outputSettings(),
+                arrayFormat, schema, new SinkSettings(sinkCapacity, sinkBatchBytes, sinkFlushInterval),
+                asyncExecutor, metrics, rowFilter);
+    }
+
+    OutputSettings outputSettings() {
+        CompressionSettings compressionSettings = new CompressionSettings(compression, compressionLevel,
+                compressionBufferSize, compressionThreads);
+        return new OutputSettings(outputBackend, bufferSize, fsyncOnClose, mappedRegionSize, append, maxRowsPerFile,
+                maxBytesPerFile, compressionSettings, checkpointRows);
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.kmpk.csvwriter;
+
+/**
+ * Finds the first char of a value that requires quoting. {@link Writer} copies values into its buffer first and
+ * scans the copy, so values that need no quoting, the common case, are written with a bulk copy and one scan.
+ * <p>
+ * The scanner in use is chosen once: the SIMD scanner built on the {@code jdk.incubator.vector} API if the module is
+ * present in the boot layer (e.g. with {@code --add-modules jdk.incubator.vector}) and the platform has vectors of at
+ * least 8 chars, a scalar loop otherwise.
+ */
+interface EscapeScanner {
+    EscapeScanner SCALAR = EscapeScanner::scan;
+
+    /**
+     * Returns the index of the first of the chars in the range that equals one of the specified chars, or
+     * {@code to} if there is none.
+     */
+    int indexOfAny(char[] chars, int from, int to, char first, char second, char third);
+
+    /**
+     * Returns the fastest scanner supported by the running JVM.
+     */
+    static EscapeScanner best() {
+        EscapeScanner vector = vector();
+        return vector != null ? vector : SCALAR;
+    }
+
+    /**
+     * Returns the SIMD scanner, or {@code null} if the Vector API is unavailable or has no useful vector width.
+     */
+    static EscapeScanner vector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return VectorEscapeScanner.isSupported() ? new VectorEscapeScanner() : null;
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    static int scan(char[] chars, int from, int to, char first, char second, char third) {
+        for (int i = from; i < to; i++) {
+            char c = chars[i];
+            if (c == first || c == second || c == third) {
+                return i;
+            }
+        }
+        return to;
+    }
+}
@@ -0,0 +1,211 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Writes the rows of one source to several files in different formats in a single pass. The reading thread reads
+ * each row once into a snapshot of its column values, see {@link FieldReader#snapshot}, so values written as text
+ * are formatted once and the rows can change as soon as they are read. It hands batches of snapshots to one I/O
+ * thread per file, which escapes and encodes them in the format of the file. Each file has a queue of
+ * {@value #QUEUE_CAPACITY} batches, so a slow file blocks the reading thread until it catches up, and at most that
+ * many batches per file are held in memory.
+ * <p>
+ * If a file fails, its thread discards further batches and the reading stops at the next batch. The remaining files
+ * are completed with the rows read so far, and the failure is rethrown once all files are closed.
+ */
+final class FanOut<T> {
+    private static final int QUEUE_CAPACITY = 2;
+    private static final List<Row> END = new ArrayList<>(0);
+
+    private final FieldAccessor<T> accessor;
+    private final RowFilter<?> rowFilter;
+    private final ArrayFormat arrayFormat;
+    private final int batchSize;
+    private final List<Target> targets = new ArrayList<>();
+    private volatile boolean failed;
+
+    /**
+     * @param accessor    The schema the rows are read with.
+     * @param rowFilter   The filter of the rows to read, or {@code null} to read all rows.
+     * @param arrayFormat The format of array and collection values in all files.
+     * @param batchSize   The number of rows handed over at once.
+     * @throws IllegalArgumentException If a file selects a column the schema doesn't have.
+     */
+    FanOut(FieldAccessor<T> accessor, RowFilter<?> rowFilter, ArrayFormat arrayFormat, int batchSize,
+           List<CsvTarget> files) {
+        this.accessor = accessor;
+        this.rowFilter = rowFilter;
+        this.arrayFormat = arrayFormat;
+        this.batchSize = batchSize;
+        for (CsvTarget file : files) {
+            targets.add(new Target(file, accessor.indexes(file.format().columns())));
+        }
+    }
+
+    /**
+     * Reads the rows on the calling thread, writing the files on threads of the executor, and returns the results of
+     * the files in the order they were specified. Returns or throws only once all files are closed: a failure of the
+     * reading is thrown as is, otherwise the failure of the first failed file.
+     */
+    List<WriteResult> write(Iterator<T> iterator, Executor executor) throws IOException, IllegalAccessException {
+        List<CompletableFuture<WriteResult>> written = new ArrayList<>();
+        for (Target target : targets) {
+            written.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return target.drain();
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+        try {
+            read(iterator);
+        } finally {
+            for (Target target : targets) {
+                target.put(END);
+            }
+            CompletableFuture.allOf(written.toArray(CompletableFuture[]::new)).handle((result, e) -> null).join();
+        }
+        List<WriteResult> results = new ArrayList<>();
+        for (CompletableFuture<WriteResult> file : written) {
+            try {
+                results.add(file.join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException io) {
+                    throw io;
+                } else if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                } else if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private void read(Iterator<T> iterator) throws IOException, IllegalAccessException {
+        List<Row> batch = new ArrayList<>(batchSize);
+        while (iterator.hasNext() && !failed) {
+            T row = iterator.next();
+            if (row == null) {
+                batch.add(null);
+            } else if (rowFilter == null || rowFilter.accepts(row)) {
+                FieldReader[] readers = accessor.readers(row);
+                Object[] values = new Object[readers.length];
+                for (int i = 0; i < readers.length; i++) {
+                    values[i] = readers[i].snapshot(readers[i].get(row), arrayFormat);
+                }
+                batch.add(new Row(readers, values));
+            }
+            if (batch.size() == batchSize) {
+                for (Target target : targets) {
+                    target.put(batch);
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            for (Target target : targets) {
+                target.put(batch);
+            }
+        }
+    }
+
+    /**
+     * The column values of a row and the readers that write them.
+     */
+    private record Row(FieldReader[] readers, Object[] values) {
+    }
+
+    private final class Target {
+        private final CsvTarget file;
+        private final int[] columns;
+        private final BlockingQueue<List<Row>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private boolean ended;
+
+        Target(CsvTarget file, int[] columns) {
+            this.file = file;
+            this.columns = columns;
+        }
+
+        void put(List<Row> batch) throws InterruptedIOException {
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + file.file());
+            }
+        }
+
+        /**
+         * Writes the batches to the file until the end of the rows. Called by the I/O thread of the file.
+         */
+        WriteResult drain() throws IOException {
+            CsvWriter format = file.format();
+            WriteTracker tracker = new WriteTracker(format.metrics(), file.file());
+            try {
+                long rows = 0;
+                long bytes;
+                try (Writer writer = format.openFile(file.file())) {
+                    if (format.includeHeader(file.file())) {
+                        String[] names = accessor.getFieldNames();
+                        writer.writeLine(Arrays.stream(columns).mapToObj(i -> names[i]).toArray(String[]::new));
+                    }
+                    long headerLines = writer.linesWritten();
+                    List<Row> batch;
+                    while ((batch = take()) != END) {
+                        for (Row row : batch) {
+                            write(row, writer, format.ignoresNullElements());
+                        }
+                    }
+                    rows = writer.linesWritten() - headerLines;
+                    bytes = writer.bytesWritten();
+                }
+                return tracker.complete(rows, bytes);
+            } catch (IOException | RuntimeException | Error e) {
+                failed = true;
+                // keep taking batches, so the reading thread never blocks on this file
+                while (!ended) {
+                    take();
+                }
+                throw e;
+            }
+        }
+
+        private void write(Row row, Writer writer, boolean ignoreNullElements) throws IOException {
+            if (row != null) {
+                for (int column : columns) {
+                    row.readers()[column].writeSnapshot(row.values()[column], writer);
+                }
+            } else if (!ignoreNullElements) {
+                for (int i = 0; i < columns.length; i++) {
+                    writer.value((String) null);
+                }
+            }
+            writer.endLine();
+        }
+
+        private List<Row> take() throws InterruptedIOException {
+            try {
+                List<Row> batch = queue.take();
+                ended = batch == END;
+                return batch;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for rows of " + file.file());
+            }
+        }
+    }
+}
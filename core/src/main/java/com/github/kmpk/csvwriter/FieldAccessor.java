@@ -0,0 +1,583 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Resolved CSV schema of a class: the ordered, non-ignored fields, record components or getters with their column
+ * names and readers, see {@link AccessStrategy}.
+ * Accessors are immutable and are shared between threads through {@link #of(Class)}, which resolves each class once.
+ */
+class FieldAccessor<T> {
+    private static final LongAdder LOOKUPS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    // entries are attached to the Class itself, so they can't outlive it and don't prevent class unloading
+    private static final ClassValue<FieldAccessor<?>> CACHE = new ClassValue<>() {
+        @Override
+        protected FieldAccessor<?> computeValue(Class<?> type) {
+            MISSES.increment();
+            return generatedOrReflective(type);
+        }
+    };
+    private static final ClassValue<FieldAccessor<?>> REFLECTIVE = new ClassValue<>() {
+        @Override
+        protected FieldAccessor<?> computeValue(Class<?> type) {
+            return new FieldAccessor<>(type);
+        }
+    };
+
+    private final Class<T> clazz;
+    private final Property[] properties;
+    private final FieldReader[] readers;
+    private final String[] names;
+    private final CsvSerializer<T> serializer;
+
+    public FieldAccessor(Class<T> clazz) {
+        this(clazz, AccessStrategy.FIELDS, null);
+    }
+
+    FieldAccessor(Class<T> clazz, AccessStrategy strategy, MethodHandles.Lookup lookup) {
+        this(clazz, strategy, lookup, 0, Converters.NONE);
+    }
+
+    /**
+     * Resolves the schema of the class. Nested objects are flattened into columns named after their path, e.g.
+     * {@code address.city}, as far as {@link CsvHint#flattenDepth()} or the default depth allows.
+     *
+     * @param lookup       The lookup used to access the members of the class, or {@code null} to make them
+     *                     accessible with {@code setAccessible} and use the lookup of this library.
+     * @param flattenDepth The number of levels of nested objects flattened for fields without a flatten depth hint.
+     * @param converters   The converters registered by type. Fields of these types are only flattened if hinted.
+     */
+    FieldAccessor(Class<T> clazz, AccessStrategy strategy, MethodHandles.Lookup lookup, int flattenDepth,
+                  Converters converters) {
+        this(clazz, strategy, lookup, flattenDepth, converters, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param limit The maximum depth of flattening, which bounds hinted fields of nested objects by the depth left
+     *              at their level, so cyclic types can't recurse forever.
+     */
+    private FieldAccessor(Class<T> clazz, AccessStrategy strategy, MethodHandles.Lookup lookup, int flattenDepth,
+                          Converters converters, int limit) {
+        this.clazz = clazz;
+        properties = flatten(populateProperties(strategy, lookup), strategy, lookup, flattenDepth, converters, limit);
+        readers = Arrays.stream(properties)
+                .map(p -> reader(p, p.converter()))
+                .toArray(FieldReader[]::new);
+        names = Arrays.stream(properties)
+                .map(Property::name)
+                .toArray(String[]::new);
+        serializer = null;
+    }
+
+    /**
+     * Creates an accessor that writes objects with a generated serializer instead of reading their members.
+     */
+    FieldAccessor(CsvSerializer<T> serializer) {
+        this.clazz = serializer.type();
+        this.properties = new Property[0];
+        this.readers = new FieldReader[0];
+        this.names = serializer.header().clone();
+        this.serializer = serializer;
+    }
+
+    /**
+     * Creates an accessor with the specified column names that writes no values, for subclasses that write rows
+     * themselves.
+     */
+    FieldAccessor(Class<T> clazz, String[] names) {
+        this(clazz, new Property[0], new FieldReader[0], names);
+    }
+
+    private FieldAccessor(Class<T> clazz, Property[] properties, FieldReader[] readers, String[] names) {
+        this.clazz = clazz;
+        this.properties = properties;
+        this.readers = readers;
+        this.names = names;
+        this.serializer = null;
+    }
+
+    /**
+     * Returns the cached accessor of the specified class, resolving it on first use. The accessor uses the generated
+     * {@link CsvSerializer} of the class if there is one.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> FieldAccessor<T> of(Class<T> clazz) {
+        LOOKUPS.increment();
+        return (FieldAccessor<T>) CACHE.get(clazz);
+    }
+
+    /**
+     * Returns the cached accessor of the specified class that reads its fields, ignoring any generated serializer.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> FieldAccessor<T> reflective(Class<T> clazz) {
+        return (FieldAccessor<T>) REFLECTIVE.get(clazz);
+    }
+
+    private static <T> FieldAccessor<T> generatedOrReflective(Class<T> clazz) {
+        CsvSerializer<T> serializer = Serializers.find(clazz);
+        return serializer != null ? new FieldAccessor<>(serializer) : reflective(clazz);
+    }
+
+    static CacheStats cacheStats() {
+        long misses = MISSES.sum();
+        return new CacheStats(Math.max(LOOKUPS.sum() - misses, 0), misses);
+    }
+
+    /**
+     * Returns a view of this accessor that writes fields without a {@link CsvHint#converter()} with the converters
+     * registered for their types. Returns this accessor if no converter applies.
+     */
+    FieldAccessor<T> withConverters(Converters converters) {
+        if (converters.isEmpty()) {
+            return this;
+        }
+        if (serializer != null) {
+            return reflective(clazz).withConverters(converters);
+        }
+        FieldReader[] converted = readers.clone();
+        boolean changed = false;
+        for (int i = 0; i < properties.length; i++) {
+            CsvConverter<?> converter = converters.forType(properties[i].type());
+            if (properties[i].converter() == null && converter != null) {
+                converted[i] = reader(properties[i], converter);
+                changed = true;
+            }
+        }
+        return changed ? new FieldAccessor<>(clazz, properties, converted, names) : this;
+    }
+
+    /**
+     * Returns a view of this accessor that caches the encoded cells of the columns without a
+     * {@link CsvHint#cellCacheSize()} whose type is an immutable value type, with caches of the specified size.
+     * Returns this accessor if no column is cached.
+     */
+    FieldAccessor<T> withCellCache(int cellCacheSize) {
+        if (cellCacheSize <= 0) {
+            return this;
+        }
+        if (serializer != null) {
+            return reflective(clazz).withCellCache(cellCacheSize);
+        }
+        FieldReader[] cached = readers.clone();
+        boolean changed = false;
+        for (int i = 0; i < properties.length; i++) {
+            if (properties[i].cellCacheSize() < 0 && immutableValue(properties[i].type())) {
+                cached[i] = FieldReader.caching(readers[i], cellCacheSize);
+                changed = true;
+            }
+        }
+        return changed ? new FieldAccessor<>(clazz, properties, cached, names) : this;
+    }
+
+    /**
+     * Returns whether values of the type can be cached by {@code equals} without being hinted: Strings, enums, boxed
+     * primitives and {@code java.time} values, which can't change after they are cached. Primitives are excluded,
+     * since formatting them costs less than boxing and looking them up.
+     */
+    private static boolean immutableValue(Class<?> type) {
+        return type == String.class || type.isEnum() || type == Integer.class || type == Long.class
+                || type == Short.class || type == Byte.class || type == Double.class || type == Float.class
+                || type == Boolean.class || type == Character.class || type.getPackageName().equals("java.time");
+    }
+
+    /**
+     * Returns the reader of the property writing with the converter, through a cell cache if the property is hinted
+     * to be cached.
+     */
+    private static FieldReader reader(Property property, CsvConverter<?> converter) {
+        FieldReader reader = converter != null ? FieldReader.converting(property.reader(), converter) : property.reader();
+        return property.cellCacheSize() > 0 ? FieldReader.caching(reader, property.cellCacheSize()) : reader;
+    }
+
+    /**
+     * Returns a view of this accessor that reads only the selected columns, in the order they were selected.
+     * Returns this accessor if all columns are selected.
+     *
+     * @throws IllegalArgumentException If a selected name or order matches no column of the class.
+     */
+    FieldAccessor<T> select(ColumnSelection selection) {
+        if (selection.isAll()) {
+            return this;
+        }
+        if (serializer != null) {
+            return reflective(clazz).select(selection);
+        }
+        int[] selected = indexes(selection);
+        return new FieldAccessor<>(clazz,
+                Arrays.stream(selected).mapToObj(i -> properties[i]).toArray(Property[]::new),
+                Arrays.stream(selected).mapToObj(i -> readers[i]).toArray(FieldReader[]::new),
+                Arrays.stream(selected).mapToObj(i -> names[i]).toArray(String[]::new));
+    }
+
+    /**
+     * Returns the indexes of the selected columns, in the order they were selected.
+     *
+     * @throws IllegalArgumentException If a selected name or order matches no column.
+     */
+    int[] indexes(ColumnSelection selection) {
+        String[] columnNames = getFieldNames();
+        if (selection.isAll()) {
+            return IntStream.range(0, columnNames.length).toArray();
+        }
+        List<Integer> selected = new ArrayList<>();
+        if (selection.names() != null) {
+            List<String> nameList = Arrays.asList(columnNames);
+            for (String name : selection.names()) {
+                int index = nameList.indexOf(name);
+                if (index < 0) {
+                    throw new IllegalArgumentException("Class " + clazz.getName() + " has no column " + name);
+                }
+                selected.add(index);
+            }
+        } else {
+            int[] orders = orders();
+            for (int order : selection.orders()) {
+                int count = selected.size();
+                for (int i = 0; i < orders.length; i++) {
+                    if (orders[i] == order) {
+                        selected.add(i);
+                    }
+                }
+                if (selected.size() == count) {
+                    throw new IllegalArgumentException("Class " + clazz.getName() + " has no column with order " + order);
+                }
+            }
+        }
+        return selected.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns the column names. The returned array is shared and must not be modified.
+     */
+    public String[] getFieldNames() {
+        return names;
+    }
+
+    /**
+     * Returns the class whose objects are written.
+     */
+    Class<T> type() {
+        return clazz;
+    }
+
+    /**
+     * Returns the readers of the columns, also for classes written by a generated serializer.
+     */
+    FieldReader[] readers() {
+        return serializer != null ? reflective(clazz).readers() : readers;
+    }
+
+    /**
+     * Returns the readers of the columns of the row.
+     */
+    FieldReader[] readers(T row) {
+        return readers();
+    }
+
+    /**
+     * Returns the {@link CsvHint#order()} of each column.
+     */
+    int[] orders() {
+        if (serializer != null) {
+            return reflective(clazz).orders();
+        }
+        return Arrays.stream(properties).mapToInt(Property::order).toArray();
+    }
+
+    /**
+     * Returns the unescaped string forms of the field values. Arrays and collections are formatted in the default
+     * {@link ArrayFormat}, {@code null} values are returned as {@code null}.
+     */
+    public String[] getFieldValues(T o) throws IllegalAccessException {
+        if (serializer != null) {
+            return reflective(clazz).getFieldValues(o);
+        }
+        String[] values = new String[readers.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = format(readers[i].get(o));
+        }
+        return values;
+    }
+
+    public void writeFieldValues(T o, Writer writer) throws IllegalAccessException, IOException {
+        if (serializer != null) {
+            serializer.write(o, writer);
+            return;
+        }
+        for (FieldReader reader : readers) {
+            reader.write(o, writer);
+        }
+    }
+
+    static String format(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof Object[] array) {
+            return Arrays.toString(array);
+        } else if (value instanceof int[] array) {
+            return Arrays.toString(array);
+        } else if (value instanceof long[] array) {
+            return Arrays.toString(array);
+        } else if (value instanceof double[] array) {
+            return Arrays.toString(array);
+        } else if (value instanceof float[] array) {
+            return Arrays.toString(array);
+        } else if (value instanceof boolean[] array) {
+            return Arrays.toString(array);
+        } else if (value instanceof char[] array) {
+            return Arrays.toString(array);
+        } else if (value instanceof short[] array) {
+            return Arrays.toString(array);
+        } else if (value instanceof byte[] array) {
+            return Arrays.toString(array);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Replaces the properties holding nested objects that are flattened with the properties of the nested class,
+     * which keep the order of the replaced property.
+     */
+    private static Property[] flatten(Property[] properties, AccessStrategy strategy, MethodHandles.Lookup lookup,
+                                      int flattenDepth, Converters converters, int limit) {
+        List<Property> result = new ArrayList<>(properties.length);
+        for (Property property : properties) {
+            int depth = property.flattenDepth() >= 0 ? property.flattenDepth()
+                    : converters.forType(property.type()) != null ? 0 : flattenDepth;
+            depth = Math.min(depth, limit);
+            if (depth <= 0 || property.converter() != null || !flattenable(property.type())) {
+                result.add(property);
+                continue;
+            }
+            FieldAccessor<?> nested = new FieldAccessor<>(property.type(), strategy, lookup, depth - 1, converters, depth - 1);
+            for (Property inner : nested.properties) {
+                result.add(new Property(property.order(), property.name() + "." + inner.name(), inner.type(),
+                        FieldReader.nested(property.reader(), inner.reader()), inner.converter(), -1,
+                        inner.cellCacheSize()));
+            }
+        }
+        return result.toArray(Property[]::new);
+    }
+
+    /**
+     * Returns whether objects of the type can be flattened: classes and records outside the JDK that are not enums.
+     */
+    private static boolean flattenable(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isEnum() || type.isInterface()) {
+            return false;
+        }
+        String packageName = type.getPackageName();
+        return !packageName.startsWith("java.") && !packageName.startsWith("javax.") && !packageName.startsWith("jdk.");
+    }
+
+    /**
+     * Finds the columns of the class and orders them by {@link CsvHint#order()}. Columns with the same order keep the
+     * order in which they were found.
+     */
+    private Property[] populateProperties(AccessStrategy strategy, MethodHandles.Lookup lookup) {
+        List<Property> result = new ArrayList<>();
+        if (clazz.isRecord()) {
+            addComponents(result, lookup);
+        } else if (strategy == AccessStrategy.GETTERS) {
+            addGetters(result, lookup);
+        } else {
+            addFields(result, lookup);
+        }
+        result.sort(Comparator.comparingInt(Property::order));
+        return result.toArray(Property[]::new);
+    }
+
+    private void addFields(List<Property> result, MethodHandles.Lookup lookup) {
+        for (Field field : declaredFields()) {
+            if (field.getAnnotation(CsvIgnore.class) != null) {
+                continue;
+            }
+            if (lookup == null) {
+                field.trySetAccessible();
+            }
+            result.add(property(field.getAnnotation(CsvHint.class), field.getName(), field.getType(), FieldReader.of(field, lookup)));
+        }
+    }
+
+    private void addComponents(List<Property> result, MethodHandles.Lookup lookup) {
+        for (RecordComponent component : clazz.getRecordComponents()) {
+            Method accessor = component.getAccessor();
+            Field field = declaredField(component.getName());
+            if (annotation(accessor, field, CsvIgnore.class) != null) {
+                continue;
+            }
+            if (lookup == null) {
+                accessor.trySetAccessible();
+            }
+            result.add(property(annotation(accessor, field, CsvHint.class), component.getName(), component.getType(),
+                    FieldReader.of(accessor, lookup)));
+        }
+    }
+
+    /**
+     * Adds the getters of the class and its superclasses, ordered like their backing fields.
+     */
+    private void addGetters(List<Property> result, MethodHandles.Lookup lookup) {
+        List<Field> fields = declaredFields();
+        Map<String, Method> getters = new LinkedHashMap<>();
+        for (Class<?> type : hierarchy()) {
+            for (Method method : type.getDeclaredMethods()) {
+                String property = propertyName(method);
+                if (property != null) {
+                    getters.putIfAbsent(property, method);
+                }
+            }
+        }
+        Map<String, Integer> fieldIndexes = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            fieldIndexes.putIfAbsent(fields.get(i).getName(), i);
+        }
+        List<String> properties = new ArrayList<>(getters.keySet());
+        properties.sort(Comparator.comparing((String name) -> fieldIndexes.getOrDefault(name, Integer.MAX_VALUE))
+                .thenComparing(Comparator.naturalOrder()));
+        for (String property : properties) {
+            Method getter = getters.get(property);
+            Integer fieldIndex = fieldIndexes.get(property);
+            Field field = fieldIndex != null ? fields.get(fieldIndex) : null;
+            if (annotation(getter, field, CsvIgnore.class) != null) {
+                continue;
+            }
+            if (lookup == null) {
+                getter.trySetAccessible();
+            }
+            result.add(property(annotation(getter, field, CsvHint.class), property, getter.getReturnType(),
+                    FieldReader.of(getter, lookup)));
+        }
+    }
+
+    /**
+     * Returns the property name of a public getter, or {@code null} if the method is not a getter.
+     */
+    private static String propertyName(Method method) {
+        int modifiers = method.getModifiers();
+        if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || method.isSynthetic()
+                || method.getParameterCount() > 0) {
+            return null;
+        }
+        String name = method.getName();
+        Class<?> type = method.getReturnType();
+        String property;
+        if (name.startsWith("get") && type != void.class && !name.equals("getClass")) {
+            property = name.substring(3);
+        } else if (name.startsWith("is") && type == boolean.class) {
+            property = name.substring(2);
+        } else {
+            return null;
+        }
+        if (property.isEmpty() || !Character.isUpperCase(property.charAt(0))) {
+            return null;
+        }
+        // like java.beans.Introspector.decapitalize: "URL" stays "URL", "Name" becomes "name"
+        if (property.length() > 1 && Character.isUpperCase(property.charAt(1))) {
+            return property;
+        }
+        return Character.toLowerCase(property.charAt(0)) + property.substring(1);
+    }
+
+    /**
+     * Returns the non-static fields of the class and its superclasses, superclass fields first.
+     */
+    private List<Field> declaredFields() {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> type : hierarchy()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private Field declaredField(String name) {
+        try {
+            return clazz.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the class and its superclasses, outermost superclass first. The walk stops at {@code Object} and at
+     * superclasses in other modules that don't open their package, e.g. JDK classes, whose fields can't be read.
+     */
+    private List<Class<?>> hierarchy() {
+        ArrayDeque<Class<?>> types = new ArrayDeque<>();
+        for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+            if (type != clazz && type.getModule() != clazz.getModule()
+                    && !type.getModule().isOpen(type.getPackageName(), FieldAccessor.class.getModule())) {
+                break;
+            }
+            types.addFirst(type);
+        }
+        return new ArrayList<>(types);
+    }
+
+    private static <A extends Annotation> A annotation(Method method, Field field, Class<A> annotationType) {
+        A annotation = method.getAnnotation(annotationType);
+        if (annotation == null && field != null) {
+            annotation = field.getAnnotation(annotationType);
+        }
+        return annotation;
+    }
+
+    private static Property property(CsvHint hint, String name, Class<?> type, FieldReader reader) {
+        if (hint == null) {
+            return new Property(Integer.MAX_VALUE, name, type, reader, null, -1, -1);
+        }
+        String customName = hint.name().isEmpty() ? name : hint.name();
+        return new Property(hint.order(), customName, type, reader, newConverter(hint.converter()), hint.flattenDepth(),
+                hint.cellCacheSize());
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static CsvConverter<?> newConverter(Class<? extends CsvConverter> type) {
+        if (type == CsvConverter.class) {
+            return null;
+        }
+        try {
+            Constructor<? extends CsvConverter> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't instantiate converter " + type.getName(), e);
+        }
+    }
+
+    /**
+     * A column of the schema.
+     *
+     * @param type      The declared type of the member, which converters registered by type are looked up with.
+     * @param reader    The reader of the member, without the converter.
+     * @param converter    The converter of the column set with {@link CsvHint#converter()}, or {@code null}.
+     * @param flattenDepth The flatten depth set with {@link CsvHint#flattenDepth()}, or {@code -1}.
+     * @param cellCacheSize The cell cache size set with {@link CsvHint#cellCacheSize()}, or {@code -1}.
+     */
+    private record Property(int order, String name, Class<?> type, FieldReader reader, CsvConverter<?> converter,
+                            int flattenDepth, int cellCacheSize) {
+    }
+}
@@ -0,0 +1,614 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+/**
+ * Reads the value of a single field, record component or getter and writes it to a {@link Writer}.
+ * A reader is resolved once per member: the member type is inspected up front and the value is read through a
+ * method handle adapted to the exact primitive type, so the per-row path neither boxes primitives nor checks types.
+ * If a method handle can't be created for the member, the reflective {@link Field#get(Object)} or
+ * {@link Method#invoke(Object, Object...)} path is used instead.
+ */
+abstract class FieldReader {
+    /**
+     * Reader of a column the object doesn't have, which reads {@code null} and writes an empty value.
+     */
+    static final FieldReader ABSENT = new AbsentReader();
+
+    /**
+     * Returns the field value, boxing primitives.
+     */
+    abstract Object get(Object o) throws IllegalAccessException;
+
+    /**
+     * Writes the field value as the next value of the current line.
+     */
+    abstract void write(Object o, Writer writer) throws IllegalAccessException, IOException;
+
+    /**
+     * Writes a value read by this reader as the next value of the current line, as {@link #write} writes it.
+     */
+    void writeValue(Object value, Writer writer) throws IOException {
+        writer.value(value);
+    }
+
+    /**
+     * Returns a value read by this reader in a form that {@link #writeSnapshot} writes to any writer without reading
+     * the value again: the text of objects, arrays and collections, and of values written by a converter, or the
+     * value itself if it is a String, a boxed primitive or a {@code java.time} value, which can't change.
+     *
+     * @param arrayFormat The format of array and collection values.
+     */
+    Object snapshot(Object value, ArrayFormat arrayFormat) throws IOException {
+        if (value instanceof Collection<?> || (value != null && value.getClass().isArray())) {
+            return arrayFormat.format(value);
+        }
+        return Writer.formatsNatively(value) ? value : value.toString();
+    }
+
+    /**
+     * Writes a value returned by {@link #snapshot} as the next value of the current line.
+     */
+    void writeSnapshot(Object snapshot, Writer writer) throws IOException {
+        writer.value(snapshot);
+    }
+
+    static FieldReader of(Field field) {
+        return of(field, null);
+    }
+
+    /**
+     * Returns a reader of the field, accessed through the specified lookup, or through the lookup of this library if
+     * it is {@code null}.
+     */
+    static FieldReader of(Field field, MethodHandles.Lookup lookup) {
+        try {
+            return of(access(field.getDeclaringClass(), lookup).unreflectGetter(field), field.getType());
+        } catch (IllegalAccessException e) {
+            return new ReflectiveReader(field);
+        }
+    }
+
+    /**
+     * Returns a reader of the value returned by the no-arg method, e.g. a getter or a record component accessor,
+     * accessed through the specified lookup, or through the lookup of this library if it is {@code null}.
+     */
+    static FieldReader of(Method method, MethodHandles.Lookup lookup) {
+        try {
+            return of(access(method.getDeclaringClass(), lookup).unreflect(method), method.getReturnType());
+        } catch (IllegalAccessException e) {
+            return new ReflectiveMethodReader(method);
+        }
+    }
+
+    /**
+     * Returns a reader that writes the values read by the specified reader with the converter.
+     */
+    static FieldReader converting(FieldReader reader, CsvConverter<?> converter) {
+        return new ConvertingReader(reader, converter);
+    }
+
+    /**
+     * Returns a reader that writes the values read by the specified reader through a {@link CellCache} of the
+     * specified capacity, which each {@link Writer} creates for the reader on first use.
+     */
+    static FieldReader caching(FieldReader reader, int capacity) {
+        return new CachingReader(reader, capacity);
+    }
+
+    /**
+     * Returns a reader of a member of the object read by the outer reader. If the outer object is {@code null}, the
+     * value is {@code null} as well.
+     */
+    static FieldReader nested(FieldReader outer, FieldReader inner) {
+        return new NestedReader(outer, inner);
+    }
+
+    /**
+     * Returns a lookup with private access to the class if the caller's lookup allows it, so members can be read
+     * without {@code setAccessible}. Without a caller's lookup, members must have been made accessible.
+     */
+    private static MethodHandles.Lookup access(Class<?> type, MethodHandles.Lookup lookup) {
+        if (lookup == null) {
+            return MethodHandles.lookup();
+        }
+        try {
+            return MethodHandles.privateLookupIn(type, lookup);
+        } catch (IllegalAccessException e) {
+            return lookup;
+        }
+    }
+
+    private static FieldReader of(MethodHandle getter, Class<?> type) {
+        if (type.isPrimitive()) {
+            getter = getter.asType(MethodType.methodType(type, Object.class));
+            if (type == int.class) {
+                return new IntReader(getter);
+            } else if (type == long.class) {
+                return new LongReader(getter);
+            } else if (type == double.class) {
+                return new DoubleReader(getter);
+            } else if (type == float.class) {
+                return new FloatReader(getter);
+            } else if (type == boolean.class) {
+                return new BooleanReader(getter);
+            } else if (type == char.class) {
+                return new CharReader(getter);
+            } else if (type == short.class) {
+                return new ShortReader(getter);
+            } else {
+                return new ByteReader(getter);
+            }
+        }
+        return new ObjectReader(getter.asType(MethodType.methodType(Object.class, Object.class)));
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException e) {
+            throw e;
+        }
+        if (t instanceof Error e) {
+            throw e;
+        }
+        throw new IllegalStateException(t);
+    }
+
+    private static final class IntReader extends FieldReader {
+        private final MethodHandle getter;
+
+        IntReader(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        private int read(Object o) {
+            try {
+                return (int) getter.invokeExact(o);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        Object get(Object o) {
+            return read(o);
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IOException {
+            int value = read(o);
+            writer.value(value);
+        }
+    }
+
+    private static final class LongReader extends FieldReader {
+        private final MethodHandle getter;
+
+        LongReader(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        private long read(Object o) {
+            try {
+                return (long) getter.invokeExact(o);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        Object get(Object o) {
+            return read(o);
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IOException {
+            long value = read(o);
+            writer.value(value);
+        }
+    }
+
+    private static final class DoubleReader extends FieldReader {
+        private final MethodHandle getter;
+
+        DoubleReader(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        private double read(Object o) {
+            try {
+                return (double) getter.invokeExact(o);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        Object get(Object o) {
+            return read(o);
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IOException {
+            double value = read(o);
+            writer.value(value);
+        }
+    }
+
+    private static final class FloatReader extends FieldReader {
+        private final MethodHandle getter;
+
+        FloatReader(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        private float read(Object o) {
+            try {
+                return (float) getter.invokeExact(o);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        Object get(Object o) {
+            return read(o);
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IOException {
+            float value = read(o);
+            writer.value(value);
+        }
+    }
+
+    private static final class BooleanReader extends FieldReader {
+        private final MethodHandle getter;
+
+        BooleanReader(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        private boolean read(Object o) {
+            try {
+                return (boolean) getter.invokeExact(o);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        Object get(Object o) {
+            return read(o);
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IOException {
+            boolean value = read(o);
+            writer.value(value);
+        }
+    }
+
+    private static final class CharReader extends FieldReader {
+        private final MethodHandle getter;
+
+        CharReader(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        private char read(Object o) {
+            try {
+                return (char) getter.invokeExact(o);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        Object get(Object o) {
+            return read(o);
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IOException {
+            char value = read(o);
+            writer.value(value);
+        }
+    }
+
+    private static final class ShortReader extends FieldReader {
+        private final MethodHandle getter;
+
+        ShortReader(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        private short read(Object o) {
+            try {
+                return (short) getter.invokeExact(o);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        Object get(Object o) {
+            return read(o);
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IOException {
+            short value = read(o);
+            writer.value(value);
+        }
+    }
+
+    private static final class ByteReader extends FieldReader {
+        private final MethodHandle getter;
+
+        ByteReader(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        private byte read(Object o) {
+            try {
+                return (byte) getter.invokeExact(o);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        Object get(Object o) {
+            return read(o);
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IOException {
+            byte value = read(o);
+            writer.value(value);
+        }
+    }
+
+    private static final class ObjectReader extends FieldReader {
+        private final MethodHandle getter;
+
+        ObjectReader(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        Object get(Object o) {
+            try {
+                return getter.invokeExact(o);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IOException {
+            writer.value(get(o));
+        }
+    }
+
+    private static final class AbsentReader extends FieldReader {
+        @Override
+        Object get(Object o) {
+            return null;
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IOException {
+            writer.value((String) null);
+        }
+
+        @Override
+        void writeValue(Object value, Writer writer) throws IOException {
+            writer.value((String) null);
+        }
+    }
+
+    private static final class NestedReader extends FieldReader {
+        private final FieldReader outer;
+        private final FieldReader inner;
+
+        NestedReader(FieldReader outer, FieldReader inner) {
+            this.outer = outer;
+            this.inner = inner;
+        }
+
+        @Override
+        Object get(Object o) throws IllegalAccessException {
+            Object nested = outer.get(o);
+            return nested == null ? null : inner.get(nested);
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IllegalAccessException, IOException {
+            Object nested = outer.get(o);
+            if (nested == null) {
+                writer.value((String) null);
+            } else {
+                inner.write(nested, writer);
+            }
+        }
+
+        @Override
+        void writeValue(Object value, Writer writer) throws IOException {
+            inner.writeValue(value, writer);
+        }
+
+        @Override
+        Object snapshot(Object value, ArrayFormat arrayFormat) throws IOException {
+            return inner.snapshot(value, arrayFormat);
+        }
+
+        @Override
+        void writeSnapshot(Object snapshot, Writer writer) throws IOException {
+            inner.writeSnapshot(snapshot, writer);
+        }
+    }
+
+    private static final class CachingReader extends FieldReader {
+        private final FieldReader reader;
+        private final int capacity;
+
+        CachingReader(FieldReader reader, int capacity) {
+            this.reader = reader;
+            this.capacity = capacity;
+        }
+
+        @Override
+        Object get(Object o) throws IllegalAccessException {
+            return reader.get(o);
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IllegalAccessException, IOException {
+            writeValue(reader.get(o), writer);
+        }
+
+        @Override
+        void writeValue(Object value, Writer writer) throws IOException {
+            writer.value(value, reader, writer.cellCache(this, capacity));
+        }
+
+        @Override
+        Object snapshot(Object value, ArrayFormat arrayFormat) throws IOException {
+            return reader.snapshot(value, arrayFormat);
+        }
+
+        @Override
+        void writeSnapshot(Object snapshot, Writer writer) throws IOException {
+            reader.writeSnapshot(snapshot, writer);
+        }
+    }
+
+    private static final class ConvertingReader extends FieldReader {
+        private final FieldReader reader;
+        private final CsvConverter<Object> converter;
+
+        @SuppressWarnings("unchecked")
+        ConvertingReader(FieldReader reader, CsvConverter<?> converter) {
+            this.reader = reader;
+            this.converter = (CsvConverter<Object>) converter;
+        }
+
+        @Override
+        Object get(Object o) throws IllegalAccessException {
+            return reader.get(o);
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IllegalAccessException, IOException {
+            writer.value(reader.get(o), converter);
+        }
+
+        @Override
+        void writeValue(Object value, Writer writer) throws IOException {
+            writer.value(value, converter);
+        }
+
+        @Override
+        Object snapshot(Object value, ArrayFormat arrayFormat) throws IOException {
+            if (value == null) {
+                return null;
+            }
+            TextOutput text = new TextOutput();
+            converter.write(value, text);
+            return text.toString();
+        }
+
+        @Override
+        void writeSnapshot(Object snapshot, Writer writer) throws IOException {
+            if (snapshot == null || converter.mayNeedQuoting()) {
+                writer.value((String) snapshot);
+            } else {
+                writer.unquotedValue((String) snapshot);
+            }
+        }
+    }
+
+    /**
+     * Collects the output of a converter as text.
+     */
+    private static final class TextOutput implements CsvOutput {
+        private final StringBuilder text = new StringBuilder();
+
+        @Override
+        public CsvOutput append(char c) {
+            text.append(c);
+            return this;
+        }
+
+        @Override
+        public CsvOutput append(CharSequence s) {
+            text.append(s == null ? "null" : s);
+            return this;
+        }
+
+        @Override
+        public CsvOutput append(long value) {
+            text.append(value);
+            return this;
+        }
+
+        @Override
+        public CsvOutput append(double value) {
+            text.append(value);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+
+    private static final class ReflectiveReader extends FieldReader {
+        private final Field field;
+
+        ReflectiveReader(Field field) {
+            this.field = field;
+        }
+
+        @Override
+        Object get(Object o) throws IllegalAccessException {
+            return field.get(o);
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IllegalAccessException, IOException {
+            writer.value(field.get(o));
+        }
+    }
+
+    private static final class ReflectiveMethodReader extends FieldReader {
+        private final Method method;
+
+        ReflectiveMethodReader(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        Object get(Object o) throws IllegalAccessException {
+            try {
+                return method.invoke(o);
+            } catch (InvocationTargetException e) {
+                throw rethrow(e.getCause());
+            }
+        }
+
+        @Override
+        void write(Object o, Writer writer) throws IllegalAccessException, IOException {
+            writer.value(get(o));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.kmpk.csvwriter;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Checks whether a recording enables the JFR events of this library. Until the flight recorder is initialized, e.g.
+ * by {@code -XX:StartFlightRecording} or a {@link jdk.jfr.Recording}, no event class is loaded or created, so writes
+ * in a JVM without recordings don't pay for the start-up of JFR.
+ */
+final class JfrEvents {
+    private JfrEvents() {
+    }
+
+    static boolean writeEnabled() {
+        return FlightRecorder.isInitialized() && Types.WRITE.isEnabled();
+    }
+
+    static boolean flushEnabled() {
+        return FlightRecorder.isInitialized() && Types.FLUSH.isEnabled();
+    }
+
+    /**
+     * Holds the event types, which are only looked up, and JFR's metadata initialized, once a recorder exists.
+     */
+    private static final class Types {
+        static final EventType WRITE = EventType.getEventType(CsvWriteEvent.class);
+        static final EventType FLUSH = EventType.getEventType(CsvFlushEvent.class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Output backend that encodes straight into memory-mapped regions of the file. Regions are mapped one after
+ * another as they fill up, and the file is truncated to the number of bytes actually written on close.
+ * The region size should be close to the expected file size, so that most exports need a single mapping.
+ */
+class MappedFileWriter extends Utf8Writer {
+    private final FileChannel channel;
+    private final long regionSize;
+    private final boolean fsyncOnClose;
+    private long regionStart;
+
+    MappedFileWriter(FileChannel channel, long regionSize, boolean fsyncOnClose) throws IOException {
+        this.channel = channel;
+        this.regionSize = Math.max(regionSize, 16);
+        this.fsyncOnClose = fsyncOnClose;
+        this.regionStart = channel.position();
+        this.buffer = map();
+    }
+
+    private MappedByteBuffer map() throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, regionStart, regionSize);
+    }
+
+    @Override
+    protected void drain() throws IOException {
+        regionStart += buffer.position();
+        if (fsyncOnClose) {
+            ((MappedByteBuffer) buffer).force();
+        }
+        buffer = map();
+    }
+
+    @Override
+    public void flush() {
+        // mapped pages are written back by the OS, nothing to do
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try (channel) {
+            finishEncoding();
+            if (fsyncOnClose) {
+                ((MappedByteBuffer) buffer).force();
+            }
+            long size = regionStart + buffer.position();
+            buffer = null;
+            channel.truncate(size);
+            if (fsyncOnClose) {
+                channel.force(true);
+            }
+        }
+    }
+}
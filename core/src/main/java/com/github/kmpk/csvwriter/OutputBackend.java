@@ -0,0 +1,20 @@
+package com.github.kmpk.csvwriter;
+
+/**
+ * Defines how {@link CsvWriter} writes encoded CSV to a file.
+ */
+public enum OutputBackend {
+    /**
+     * Writes through a buffered {@link java.io.FileOutputStream}.
+     */
+    STREAM,
+    /**
+     * Encodes UTF-8 directly into a direct byte buffer and writes it through a {@link java.nio.channels.FileChannel}.
+     */
+    CHANNEL,
+    /**
+     * Encodes UTF-8 directly into memory-mapped regions of the file. Works best when the file size is known or can
+     * be estimated, see {@link CsvWriterBuilder#mappedRegionSize(long)}.
+     */
+    MAPPED
+}
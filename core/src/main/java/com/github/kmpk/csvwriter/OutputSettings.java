@@ -0,0 +1,155 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.OpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * File output settings of a {@link CsvWriter}.
+ *
+ * @param backend          The backend used to write the file.
+ * @param bufferSize       The size of the output buffer in bytes.
+ * @param fsyncOnClose     Whether written data is forced to the storage device before the file is closed.
+ * @param mappedRegionSize The size of a single mapped region for {@link OutputBackend#MAPPED}.
+ * @param append           Whether existing files are appended to instead of being overwritten.
+ * @param maxRowsPerFile   The number of rows after which a new part file is started, {@code 0} for no limit.
+ * @param maxBytesPerFile  The size in bytes after which a new part file is started, {@code 0} for no limit.
+ * @param compression      The compression applied to written files.
+ * @param checkpointRows   The number of rows after which a checkpoint is taken, {@code 0} for no checkpoints.
+ */
+record OutputSettings(OutputBackend backend, int bufferSize, boolean fsyncOnClose, long mappedRegionSize,
+                      boolean append, long maxRowsPerFile, long maxBytesPerFile, CompressionSettings compression,
+                      long checkpointRows) {
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    static final long DEFAULT_MAPPED_REGION_SIZE = 64L * 1024 * 1024;
+    static final OutputSettings DEFAULT = new CsvWriterBuilder().outputSettings();
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(".gz", ".deflate");
+
+    /**
+     * Returns whether the output is split into part files.
+     */
+    boolean rolling() {
+        return maxRowsPerFile > 0 || maxBytesPerFile > 0;
+    }
+
+    /**
+     * Returns whether writes to a file are checkpointed and can be resumed, see {@link Checkpoint}.
+     */
+    boolean checkpointing() {
+        return checkpointRows > 0;
+    }
+
+    /**
+     * Returns these settings in append mode.
+     */
+    OutputSettings appending() {
+        return new OutputSettings(backend, bufferSize, fsyncOnClose, mappedRegionSize, true, maxRowsPerFile,
+                maxBytesPerFile, compression, checkpointRows);
+    }
+
+    /**
+     * Returns whether a part file holding the specified number of rows and bytes is full.
+     */
+    boolean partFull(long rows, long bytes) {
+        return (maxRowsPerFile > 0 && rows >= maxRowsPerFile) || (maxBytesPerFile > 0 && bytes >= maxBytesPerFile);
+    }
+
+    /**
+     * Returns the part file with the specified index, e.g. {@code export-00001.csv} for {@code export.csv}. The index
+     * goes before the extension of the content, so {@code export.csv.gz} becomes {@code export-00001.csv.gz}.
+     */
+    static File partFile(File file, int index) {
+        String name = file.getName();
+        int extension = name.lastIndexOf('.');
+        if (extension > 0 && COMPRESSED_EXTENSIONS.contains(name.substring(extension))) {
+            int contentExtension = name.lastIndexOf('.', extension - 1);
+            if (contentExtension > 0) {
+                extension = contentExtension;
+            }
+        }
+        String part = extension > 0
+                ? String.format("%s-%05d%s", name.substring(0, extension), index, name.substring(extension))
+                : String.format("%s-%05d", name, index);
+        return new File(file.getParentFile(), part);
+    }
+
+    /**
+     * Opens the file for writing. The file is truncated if it exists, unless the settings are in append mode.
+     * Uncompressed files written with the {@link OutputBackend#STREAM} or {@link OutputBackend#CHANNEL} backend are
+     * {@link Syncable}.
+     */
+    java.io.Writer open(File file) throws IOException {
+        if (compression.enabled()) {
+            return new OutputStreamWriter(compression.wrap(openStream(file)), StandardCharsets.UTF_8);
+        }
+        return switch (backend) {
+            case STREAM -> new StreamWriter(openStream(file), bufferSize);
+            case CHANNEL -> new ChannelWriter(openChannel(file, false), bufferSize, fsyncOnClose);
+            case MAPPED -> new MappedFileWriter(openChannel(file, true), mappedRegionSize, fsyncOnClose);
+        };
+    }
+
+    private FileOutputStream openStream(File file) throws IOException {
+        if (!fsyncOnClose) {
+            return new FileOutputStream(file, append);
+        }
+        return new FileOutputStream(file, append) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    getFD().sync();
+                } finally {
+                    super.close();
+                }
+            }
+        };
+    }
+
+    private FileChannel openChannel(File file, boolean readable) throws IOException {
+        Set<OpenOption> options = new HashSet<>(List.of(CREATE, WRITE));
+        options.add(append ? APPEND : TRUNCATE_EXISTING);
+        if (readable) {
+            // mapping a region for writing requires the channel to be readable as well, and rules out APPEND
+            options.add(READ);
+            options.remove(APPEND);
+        }
+        FileChannel channel = FileChannel.open(file.toPath(), options);
+        if (append) {
+            channel.position(channel.size());
+        }
+        return channel;
+    }
+
+    /**
+     * Writer of the {@link OutputBackend#STREAM} backend.
+     */
+    private static final class StreamWriter extends OutputStreamWriter implements Syncable {
+        private final FileOutputStream stream;
+
+        StreamWriter(FileOutputStream stream, int bufferSize) {
+            super(new BufferedOutputStream(stream, bufferSize), StandardCharsets.UTF_8);
+            this.stream = stream;
+        }
+
+        @Override
+        public long sync() throws IOException {
+            flush();
+            stream.getFD().sync();
+            return stream.getChannel().position();
+        }
+    }
+}
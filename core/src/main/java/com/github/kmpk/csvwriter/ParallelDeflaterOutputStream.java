@@ -0,0 +1,167 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses fixed-size blocks of input on several threads, the way pigz does, and writes them as a single gzip or
+ * zlib stream. Every block is deflated independently with the tail of the previous block as its dictionary and ends
+ * with a sync flush, so the compressed blocks can simply be concatenated. The checksum is computed on the writing
+ * thread, and the stream header and trailer are written around the blocks.
+ */
+class ParallelDeflaterOutputStream extends OutputStream {
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9c};
+
+    private final OutputStream out;
+    private final boolean gzip;
+    private final int level;
+    private final int blockSize;
+    private final ExecutorService pool;
+    private final int maxInFlight;
+    private final ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+    private final Checksum checksum;
+    private byte[] block;
+    private int blockLength;
+    private byte[] dictionary;
+    private long totalIn;
+    private boolean closed;
+
+    ParallelDeflaterOutputStream(OutputStream out, boolean gzip, int level, int blockSize, int threads) throws IOException {
+        this.out = out;
+        this.gzip = gzip;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "csv-compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxInFlight = threads * 2;
+        this.checksum = gzip ? new CRC32() : new Adler32();
+        this.block = new byte[blockSize];
+        out.write(gzip ? GZIP_HEADER : ZLIB_HEADER);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (blockLength == blockSize) {
+            submitBlock(false);
+        }
+        block[blockLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (blockLength == blockSize) {
+                submitBlock(false);
+            }
+            int n = Math.min(len, blockSize - blockLength);
+            System.arraycopy(b, off, block, blockLength, n);
+            blockLength += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void submitBlock(boolean last) throws IOException {
+        byte[] data = block;
+        int length = blockLength;
+        byte[] previous = dictionary;
+        checksum.update(data, 0, length);
+        totalIn += length;
+        dictionary = Arrays.copyOfRange(data, Math.max(0, length - DICTIONARY_SIZE), length);
+        inFlight.add(pool.submit(() -> deflate(data, length, previous, last)));
+        block = new byte[blockSize];
+        blockLength = 0;
+        while (inFlight.size() >= maxInFlight) {
+            writeNextBlock();
+        }
+    }
+
+    private byte[] deflate(byte[] data, int length, byte[] previous, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (previous != null && previous.length > 0) {
+                deflater.setDictionary(previous);
+            }
+            deflater.setInput(data, 0, length);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+            byte[] buffer = new byte[64 * 1024];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                int n;
+                do {
+                    n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    compressed.write(buffer, 0, n);
+                } while (n == buffer.length);
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeNextBlock() throws IOException {
+        try {
+            out.write(inFlight.poll().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a compressed block");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to compress a block", e.getCause());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (out) {
+            submitBlock(true);
+            while (!inFlight.isEmpty()) {
+                writeNextBlock();
+            }
+            writeTrailer();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void writeTrailer() throws IOException {
+        int value = (int) checksum.getValue();
+        if (gzip) {
+            int size = (int) totalIn;
+            out.write(new byte[]{
+                    (byte) value, (byte) (value >> 8), (byte) (value >> 16), (byte) (value >> 24),
+                    (byte) size, (byte) (size >> 8), (byte) (size >> 16), (byte) (size >> 24)});
+        } else {
+            out.write(new byte[]{(byte) (value >> 24), (byte) (value >> 16), (byte) (value >> 8), (byte) value});
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A double-buffered pipe between an encoding thread and an I/O thread. The encoding thread writes into the current
+ * buffer and hands it over on {@link #flush()}, taking the other buffer, while the I/O thread writes the handed over
+ * buffer to the output in {@link #drainTo(java.io.Writer)}. Since there are only two buffers, the encoding thread
+ * blocks once it is a whole buffer ahead of the I/O thread.
+ */
+class PipelinedWriter extends java.io.Writer {
+    private static final CharArrayWriter END = new CharArrayWriter(0);
+
+    private final BlockingQueue<CharArrayWriter> free = new ArrayBlockingQueue<>(2);
+    // both buffers and the end marker, so handing over never blocks
+    private final BlockingQueue<CharArrayWriter> full = new ArrayBlockingQueue<>(3);
+    private CharArrayWriter current;
+    private boolean closed;
+    private boolean ended;
+    private volatile boolean failed;
+
+    PipelinedWriter(int bufferSize) {
+        current = new CharArrayWriter(bufferSize);
+        free.add(new CharArrayWriter(bufferSize));
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        current.write(cbuf, off, len);
+    }
+
+    /**
+     * Hands the current buffer over to the I/O thread, waiting for the other buffer to be drained.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (failed) {
+            throw new IOException("Failed to write the output");
+        }
+        if (current.size() == 0) {
+            return;
+        }
+        try {
+            full.put(current);
+            current = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the output");
+        }
+    }
+
+    /**
+     * Hands the remaining chars over and signals the I/O thread that there are no more buffers. The end is
+     * signalled even if handing over fails, so the I/O thread never waits forever.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            full.add(END);
+        }
+    }
+
+    /**
+     * Writes handed over buffers to the output until the encoding thread closes this pipe. Called by the I/O thread.
+     */
+    void drainTo(java.io.Writer out) throws IOException {
+        CharArrayWriter buffer;
+        while ((buffer = take()) != END) {
+            buffer.writeTo(out);
+            buffer.reset();
+            free.add(buffer);
+        }
+        ended = true;
+    }
+
+    /**
+     * Marks the output as failed, so the encoding thread stops at its next flush, and discards handed over buffers
+     * until the encoding thread closes this pipe. Called by the I/O thread.
+     */
+    void fail() throws InterruptedIOException {
+        failed = true;
+        CharArrayWriter buffer;
+        while (!ended && (buffer = take()) != END) {
+            buffer.reset();
+            free.add(buffer);
+        }
+        ended = true;
+    }
+
+    private CharArrayWriter take() throws InterruptedIOException {
+        try {
+            return full.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for encoded rows");
+        }
+    }
+}
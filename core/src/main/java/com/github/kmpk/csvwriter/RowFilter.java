@@ -0,0 +1,19 @@
+package com.github.kmpk.csvwriter;
+
+import java.util.function.Predicate;
+
+/**
+ * Filter of the rows to write, set with {@link CsvWriterBuilder#rowFilter(Class, Predicate)}. It only applies to
+ * rows of its type, rows of other types are always written.
+ *
+ * @param type      The type of the rows the predicate tests, including its subtypes.
+ * @param predicate The predicate accepting the rows to write.
+ */
+record RowFilter<T>(Class<T> type, Predicate<? super T> predicate) {
+    /**
+     * Returns whether the non-{@code null} row is written.
+     */
+    boolean accepts(Object row) {
+        return !type.isInstance(row) || predicate.test(type.cast(row));
+    }
+}
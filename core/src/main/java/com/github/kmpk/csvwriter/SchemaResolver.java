@@ -0,0 +1,77 @@
+package com.github.kmpk.csvwriter;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+/**
+ * Resolves the schemas of classes as configured on a {@link CsvWriterBuilder}. Schemas read with the default
+ * settings come from the cache shared by all writers and use generated {@link CsvSerializer}s where available,
+ * customized schemas are read reflectively and cached per resolver.
+ */
+final class SchemaResolver {
+    static final SchemaResolver DEFAULT = new SchemaResolver(Converters.NONE, AccessStrategy.FIELDS, null,
+            ColumnSelection.ALL, 0, null, 0);
+
+    private final Converters converters;
+    private final AccessStrategy strategy;
+    private final MethodHandles.Lookup lookup;
+    private final ColumnSelection columns;
+    private final int flattenDepth;
+    private final List<Class<?>> subtypes;
+    private final int cellCacheSize;
+    private final ClassValue<FieldAccessor<?>> cache;
+
+    /**
+     * @param subtypes The subtypes whose columns are added to the schemas of their supertypes, see
+     *                 {@link UnionAccessor}, or {@code null} to write the columns of the written class only.
+     * @param cellCacheSize The size of the cell caches of columns without a {@link CsvHint#cellCacheSize()}.
+     */
+    SchemaResolver(Converters converters, AccessStrategy strategy, MethodHandles.Lookup lookup,
+                   ColumnSelection columns, int flattenDepth, List<Class<?>> subtypes, int cellCacheSize) {
+        this.converters = converters;
+        this.strategy = strategy;
+        this.lookup = lookup;
+        this.columns = columns;
+        this.flattenDepth = flattenDepth;
+        this.subtypes = subtypes;
+        this.cellCacheSize = cellCacheSize;
+        this.cache = isDefault() ? null : new ClassValue<>() {
+            @Override
+            protected FieldAccessor<?> computeValue(Class<?> type) {
+                FieldAccessor<?> accessor = subtypes != null
+                        ? UnionAccessor.of(type, subtypes, SchemaResolver.this::resolveClass)
+                        : resolveClass(type);
+                return accessor.select(columns);
+            }
+        };
+    }
+
+    /**
+     * Returns the schema of the class.
+     *
+     * @throws IllegalArgumentException If a selected column doesn't exist in the class.
+     */
+    @SuppressWarnings("unchecked")
+    <T> FieldAccessor<T> resolve(Class<T> clazz) {
+        return cache == null ? FieldAccessor.of(clazz) : (FieldAccessor<T>) cache.get(clazz);
+    }
+
+    ColumnSelection columns() {
+        return columns;
+    }
+
+    private boolean isDefault() {
+        return converters.isEmpty() && strategy == AccessStrategy.FIELDS && lookup == null && columns.isAll()
+                && flattenDepth == 0 && subtypes == null && cellCacheSize == 0;
+    }
+
+    /**
+     * Returns the schema of the class alone, without the column selection.
+     */
+    private <T> FieldAccessor<T> resolveClass(Class<T> clazz) {
+        FieldAccessor<T> accessor = strategy == AccessStrategy.FIELDS && lookup == null && flattenDepth == 0
+                ? FieldAccessor.reflective(clazz)
+                : new FieldAccessor<>(clazz, strategy, lookup, flattenDepth, converters);
+        return accessor.withConverters(converters).withCellCache(cellCacheSize);
+    }
+}
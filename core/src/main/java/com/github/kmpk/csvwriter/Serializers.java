@@ -0,0 +1,43 @@
+package com.github.kmpk.csvwriter;
+
+import java.util.ServiceLoader;
+
+/**
+ * Discovers generated {@link CsvSerializer}s.
+ */
+final class Serializers {
+    static final String SUFFIX = "CsvSerializer";
+
+    private Serializers() {
+    }
+
+    /**
+     * Returns the serializer of the class registered with {@link ServiceLoader}, or {@code null}. Only the provider
+     * named after the class is instantiated.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> CsvSerializer<T> find(Class<T> type) {
+        if (type.isPrimitive() || type.isArray()) {
+            return null;
+        }
+        String name = serializerName(type);
+        ClassLoader loader = type.getClassLoader();
+        ServiceLoader<CsvSerializer> providers = loader == null
+                ? ServiceLoader.loadInstalled(CsvSerializer.class)
+                : ServiceLoader.load(CsvSerializer.class, loader);
+        return providers.stream()
+                .filter(provider -> provider.type().getName().equals(name))
+                .map(provider -> (CsvSerializer<T>) provider.get())
+                .filter(serializer -> serializer.type() == type)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Returns the name of the serializer of the class: {@code com.example.Outer$Inner} is written by
+     * {@code com.example.Outer_InnerCsvSerializer}.
+     */
+    static String serializerName(Class<?> type) {
+        return type.getName().replace('$', '_') + SUFFIX;
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.kmpk.csvwriter;
+
+import java.time.Duration;
+
+/**
+ * Settings of {@link CsvSink}s opened by a {@link CsvWriter}.
+ *
+ * @param capacity      The maximum number of rows queued but not yet written.
+ * @param batchBytes    The number of written bytes after which the output is flushed.
+ * @param flushInterval The maximum time rows stay written but not flushed.
+ */
+record SinkSettings(int capacity, long batchBytes, Duration flushInterval) {
+    static final int DEFAULT_CAPACITY = 8192;
+    static final long DEFAULT_BATCH_BYTES = 64 * 1024;
+    static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+    static final SinkSettings DEFAULT = new SinkSettings(DEFAULT_CAPACITY, DEFAULT_BATCH_BYTES, DEFAULT_FLUSH_INTERVAL);
+}
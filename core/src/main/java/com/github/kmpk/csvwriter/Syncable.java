@@ -0,0 +1,15 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+
+/**
+ * A file output that can force the data written so far to the storage device, used to take checkpoints.
+ */
+interface Syncable {
+    /**
+     * Flushes the output and forces its content to the storage device.
+     *
+     * @return The size of the file after the sync, i.e. the number of bytes that are durably written.
+     */
+    long sync() throws IOException;
+}
@@ -0,0 +1,45 @@
+package com.github.kmpk.csvwriter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations with power of two buckets, so recorded durations are resolved within a factor
+ * of two.
+ */
+class TimeHistogram {
+    private final LongAdder[] buckets = new LongAdder[Long.SIZE];
+
+    TimeHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        // bucket i holds durations from 2^(i-1) to 2^i - 1 nanoseconds
+        buckets[Long.SIZE - Long.numberOfLeadingZeros(Math.max(nanos, 0))].increment();
+    }
+
+    /**
+     * Returns the upper bound of the bucket containing the percentile, or {@link Duration#ZERO} if nothing was
+     * recorded.
+     */
+    Duration percentile(double percentile) {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        long rank = (long) Math.ceil(percentile / 100 * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return Duration.ofNanos(i == 0 ? 0 : (1L << i) - 1);
+            }
+        }
+        return Duration.ZERO;
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Schema of a class hierarchy written with {@link CsvWriterBuilder#polymorphic(Class[])}: the union of the columns of
+ * the written class and its known subclasses, in the order they are found. Each row is written with the layout of its
+ * runtime class, which holds a reader of the class for every union column and writes an empty value for the columns
+ * the class lacks. Rows of other subclasses are written with the columns they share with the union.
+ * <p>
+ * Layouts are resolved once per class. The layouts of the first few classes written are kept in a small inline cache
+ * that is searched by identity before the map of all layouts, so streams mixing a few classes pick the layout of each
+ * row with a couple of reference comparisons.
+ */
+final class UnionAccessor<T> extends FieldAccessor<T> {
+    private static final int INLINE_CACHE_SIZE = 4;
+
+    private final int[] orders;
+    private final Function<Class<?>, FieldAccessor<?>> resolver;
+    private final Map<Class<?>, Layout> layouts = new ConcurrentHashMap<>();
+    private volatile Layout[] recent = new Layout[0];
+
+    private UnionAccessor(Class<T> clazz, String[] names, int[] orders, Function<Class<?>, FieldAccessor<?>> resolver) {
+        super(clazz, names);
+        this.orders = orders;
+        this.resolver = resolver;
+    }
+
+    /**
+     * Builds the union of the columns of the class, the specified subtypes and, for sealed classes and interfaces,
+     * all their permitted subclasses.
+     *
+     * @param resolver Resolves the schema of a single class.
+     * @throws IllegalArgumentException If one of the subtypes is not a subtype of the class.
+     */
+    static <T> UnionAccessor<T> of(Class<T> clazz, List<Class<?>> subtypes,
+                                   Function<Class<?>, FieldAccessor<?>> resolver) {
+        List<Class<?>> types = new ArrayList<>();
+        addWithPermitted(types, clazz);
+        for (Class<?> subtype : subtypes) {
+            if (!clazz.isAssignableFrom(subtype)) {
+                throw new IllegalArgumentException(subtype.getName() + " is not a subtype of " + clazz.getName());
+            }
+            addWithPermitted(types, subtype);
+        }
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        for (Class<?> type : types) {
+            if (type.isInterface()) {
+                continue;
+            }
+            FieldAccessor<?> accessor = resolver.apply(type);
+            String[] names = accessor.getFieldNames();
+            int[] typeOrders = accessor.orders();
+            for (int i = 0; i < names.length; i++) {
+                columns.putIfAbsent(names[i], typeOrders[i]);
+            }
+        }
+        return new UnionAccessor<>(clazz, columns.keySet().toArray(String[]::new),
+                columns.values().stream().mapToInt(Integer::intValue).toArray(), resolver);
+    }
+
+    private static void addWithPermitted(List<Class<?>> types, Class<?> type) {
+        if (types.contains(type)) {
+            return;
+        }
+        types.add(type);
+        if (type.isSealed()) {
+            for (Class<?> permitted : type.getPermittedSubclasses()) {
+                addWithPermitted(types, permitted);
+            }
+        }
+    }
+
+    /**
+     * Returns a union of the selected columns. Unlike the schema of a single class, the columns are selected from
+     * the union, so classes lacking some of them are written with empty values.
+     *
+     * @throws IllegalArgumentException If a selected name or order matches no column of the union.
+     */
+    @Override
+    FieldAccessor<T> select(ColumnSelection selection) {
+        if (selection.isAll()) {
+            return this;
+        }
+        String[] names = getFieldNames();
+        int[] selected = indexes(selection);
+        return new UnionAccessor<>(type(),
+                Arrays.stream(selected).mapToObj(i -> names[i]).toArray(String[]::new),
+                Arrays.stream(selected).map(i -> orders[i]).toArray(),
+                resolver);
+    }
+
+    @Override
+    FieldReader[] readers(T row) {
+        return layout(row.getClass()).readers();
+    }
+
+    @Override
+    int[] orders() {
+        return orders;
+    }
+
+    @Override
+    public String[] getFieldValues(T o) throws IllegalAccessException {
+        FieldReader[] readers = layout(o.getClass()).readers();
+        String[] values = new String[readers.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = format(readers[i].get(o));
+        }
+        return values;
+    }
+
+    @Override
+    public void writeFieldValues(T o, Writer writer) throws IllegalAccessException, IOException {
+        for (FieldReader reader : layout(o.getClass()).readers()) {
+            reader.write(o, writer);
+        }
+    }
+
+    private Layout layout(Class<?> type) {
+        Layout[] cached = recent;
+        for (Layout layout : cached) {
+            if (layout.type() == type) {
+                return layout;
+            }
+        }
+        Layout layout = layouts.computeIfAbsent(type, this::resolveLayout);
+        if (cached.length < INLINE_CACHE_SIZE) {
+            // racing writers may drop each other's entries, which are then found in the map
+            Layout[] updated = Arrays.copyOf(cached, cached.length + 1);
+            updated[cached.length] = layout;
+            recent = updated;
+        }
+        return layout;
+    }
+
+    private Layout resolveLayout(Class<?> type) {
+        FieldAccessor<?> accessor = resolver.apply(type);
+        List<String> typeNames = Arrays.asList(accessor.getFieldNames());
+        FieldReader[] typeReaders = accessor.readers();
+        String[] names = getFieldNames();
+        FieldReader[] readers = new FieldReader[names.length];
+        for (int i = 0; i < names.length; i++) {
+            int index = typeNames.indexOf(names[i]);
+            readers[i] = index >= 0 ? typeReaders[index] : FieldReader.ABSENT;
+        }
+        return new Layout(type, readers);
+    }
+
+    /**
+     * The readers of the union columns for objects of the type.
+     */
+    private record Layout(Class<?> type, FieldReader[] readers) {
+    }
+}
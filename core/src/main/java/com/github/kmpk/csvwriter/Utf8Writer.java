@@ -0,0 +1,97 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Base of the NIO output backends: encodes chars as UTF-8 directly into a {@link ByteBuffer}, without going through
+ * a {@link java.nio.charset.CharsetEncoder}. Subclasses decide where the buffer lives and how it is drained.
+ * Malformed surrogates are replaced with {@code '?'}, like {@link java.io.OutputStreamWriter} does.
+ */
+abstract class Utf8Writer extends java.io.Writer {
+    private static final byte REPLACEMENT = '?';
+
+    protected ByteBuffer buffer;
+    private char pendingHighSurrogate;
+
+    /**
+     * Makes room in the buffer. After this call the buffer has at least 4 bytes remaining.
+     */
+    protected abstract void drain() throws IOException;
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ByteBuffer buf = buffer;
+        int pos = buf.position();
+        int limit = buf.limit();
+        int end = off + len;
+        for (int i = off; i < end; i++) {
+            if (limit - pos < 4) {
+                buf.position(pos);
+                drain();
+                buf = buffer;
+                pos = buf.position();
+                limit = buf.limit();
+            }
+            char c = cbuf[i];
+            if (pendingHighSurrogate != 0) {
+                char high = pendingHighSurrogate;
+                pendingHighSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    pos = putCodePoint(buf, pos, Character.toCodePoint(high, c));
+                    continue;
+                }
+                buf.put(pos++, REPLACEMENT);
+                if (limit - pos < 4) {
+                    buf.position(pos);
+                    drain();
+                    buf = buffer;
+                    pos = buf.position();
+                    limit = buf.limit();
+                }
+            }
+            if (c < 0x80) {
+                buf.put(pos++, (byte) c);
+            } else if (c < 0x800) {
+                buf.put(pos++, (byte) (0xC0 | (c >> 6)));
+                buf.put(pos++, (byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c)) {
+                if (i + 1 == end) {
+                    pendingHighSurrogate = c;
+                } else if (Character.isLowSurrogate(cbuf[i + 1])) {
+                    pos = putCodePoint(buf, pos, Character.toCodePoint(c, cbuf[++i]));
+                } else {
+                    buf.put(pos++, REPLACEMENT);
+                }
+            } else if (Character.isLowSurrogate(c)) {
+                buf.put(pos++, REPLACEMENT);
+            } else {
+                buf.put(pos++, (byte) (0xE0 | (c >> 12)));
+                buf.put(pos++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                buf.put(pos++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buf.position(pos);
+    }
+
+    private static int putCodePoint(ByteBuffer buf, int pos, int codePoint) {
+        buf.put(pos++, (byte) (0xF0 | (codePoint >> 18)));
+        buf.put(pos++, (byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        buf.put(pos++, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        buf.put(pos++, (byte) (0x80 | (codePoint & 0x3F)));
+        return pos;
+    }
+
+    /**
+     * Encodes a dangling high surrogate left by the last write, if any.
+     */
+    protected void finishEncoding() throws IOException {
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            if (buffer.remaining() < 4) {
+                drain();
+            }
+            buffer.put(REPLACEMENT);
+        }
+    }
+}
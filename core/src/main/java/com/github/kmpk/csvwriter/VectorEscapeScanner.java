@@ -0,0 +1,33 @@
+package com.github.kmpk.csvwriter;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Compares a whole vector of chars with the three chars at once and scans the remainder with the scalar loop.
+ * Only loaded by {@link EscapeScanner#vector()} after checking that the incubator module is present.
+ */
+final class VectorEscapeScanner implements EscapeScanner {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    static boolean isSupported() {
+        return SPECIES.length() >= 8;
+    }
+
+    @Override
+    public int indexOfAny(char[] chars, int from, int to, char first, char second, char third) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            ShortVector vector = ShortVector.fromCharArray(SPECIES, chars, i);
+            VectorMask<Short> found = vector.eq((short) first)
+                    .or(vector.eq((short) second))
+                    .or(vector.eq((short) third));
+            if (found.anyTrue()) {
+                return i + found.firstTrue();
+            }
+        }
+        return EscapeScanner.scan(chars, i, to, first, second, third);
+    }
+}
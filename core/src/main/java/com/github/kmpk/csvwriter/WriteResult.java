@@ -0,0 +1,13 @@
+package com.github.kmpk.csvwriter;
+
+import java.time.Duration;
+
+/**
+ * Summary of a completed write.
+ *
+ * @param rows    The number of rows written, excluding the header row.
+ * @param bytes   The UTF-8 encoded size of the written CSV, including the header row, before compression.
+ * @param elapsed The time from the start of the write until the file was closed.
+ */
+public record WriteResult(long rows, long bytes, Duration elapsed) {
+}
@@ -0,0 +1,44 @@
+package com.github.kmpk.csvwriter;
+
+import java.time.Duration;
+
+/**
+ * Measures a single write from its start, reporting it to the metrics listener, if any, and as a JFR event if a
+ * recording enables it when the write starts.
+ */
+final class WriteTracker {
+    private final CsvMetricsListener listener;
+    private final CsvWriteEvent event;
+    private final String target;
+    private final long start;
+
+    WriteTracker(CsvMetricsListener listener, Object target) {
+        this.listener = listener;
+        this.target = String.valueOf(target);
+        this.start = System.nanoTime();
+        this.event = JfrEvents.writeEnabled() ? new CsvWriteEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+    }
+
+    /**
+     * Reports the completed write and returns its result.
+     */
+    WriteResult complete(long rows, long bytes) {
+        WriteResult result = new WriteResult(rows, bytes, Duration.ofNanos(System.nanoTime() - start));
+        if (listener != null) {
+            listener.onWrite(result);
+        }
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.target = target;
+                event.rows = rows;
+                event.bytes = bytes;
+                event.commit();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,814 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.CharArrayWriter;
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Encodes rows into a reusable char buffer and writes it to the underlying output once the buffer is full.
+ * Values are copied straight into the buffer and escaped there, so in steady state writing a row allocates nothing.
+ * Strings are copied in bulk and then scanned for the quote, the delimiter and the newline in one pass by an
+ * {@link EscapeScanner}, which uses SIMD instructions where available.
+ * <p>
+ * Besides whole values, a value can be built from several parts between {@link #beginValue()} and
+ * {@link #endValue()}, which is how arrays and collections are written element by element. The parts are escaped as
+ * they are appended, and the opening quote is inserted when the value is finished, so a value under construction is
+ * never flushed and stays contiguous in the buffer.
+ * <p>
+ * Numbers, booleans and {@code java.time} values are formatted straight into the buffer by {@link AsciiFormat}.
+ * Unless the delimiter or the newline may occur in formatted text, they are not scanned for escaping at all.
+ * <p>
+ * Writers of final outputs, created with a metrics listener or {@code null}, report every write of the buffer to the
+ * underlying output as a {@link CsvFlushEvent} and to the listener, if any. Writers encoding into memory report
+ * nothing.
+ */
+class Writer implements AutoCloseable, CsvRow {
+    private static final int BUFFER_SIZE = 8192;
+    private static final EscapeScanner SCANNER = EscapeScanner.best();
+
+    private final java.io.Writer out;
+    private final char delimiter;
+    private final String newLine;
+    private final char newLineStart;
+    private final char newLineEnd;
+    private final ArrayFormat arrayFormat;
+    private final boolean plainValues;
+    private final boolean observed;
+    private final CsvMetricsListener listener;
+    private final StringBuilder scratch = new StringBuilder(32);
+    private final CsvOutput escapedOutput = new EscapedOutput();
+    private final CsvOutput rawOutput = new RawOutput();
+    private char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int valuesInLine;
+    private int valueStart = -1;
+    private boolean valueQuoted;
+    private int countedPosition;
+    private long bytesWritten;
+    private long flushedBytes;
+    private long linesWritten;
+    private long flushes;
+    private Map<Object, CellCache> cellCaches;
+
+    public Writer(File file, char delimiter, String newLine) throws IOException {
+        this(OutputSettings.DEFAULT.open(file), delimiter, newLine);
+    }
+
+    public Writer(java.io.Writer out, char delimiter, String newLine) {
+        this(out, delimiter, newLine, ArrayFormat.DEFAULT);
+    }
+
+    public Writer(java.io.Writer out, char delimiter, String newLine, ArrayFormat arrayFormat) {
+        this(out, delimiter, newLine, arrayFormat, false, null);
+    }
+
+    public Writer(java.io.Writer out, char delimiter, String newLine, ArrayFormat arrayFormat, CsvMetricsListener listener) {
+        this(out, delimiter, newLine, arrayFormat, true, listener);
+    }
+
+    private Writer(java.io.Writer out, char delimiter, String newLine, ArrayFormat arrayFormat, boolean observed,
+                   CsvMetricsListener listener) {
+        this.out = out;
+        this.observed = observed;
+        this.listener = listener;
+        this.delimiter = delimiter;
+        this.newLine = newLine;
+        this.newLineStart = newLine.isEmpty() ? delimiter : newLine.charAt(0);
+        this.newLineEnd = newLine.isEmpty() ? delimiter : newLine.charAt(newLine.length() - 1);
+        this.arrayFormat = arrayFormat;
+        this.plainValues = !AsciiFormat.mayContain(newLineStart) && !AsciiFormat.mayContain(delimiter);
+    }
+
+    public void writeLine(String... values) throws IOException {
+        for (String value : values) {
+            value(value);
+        }
+        endLine();
+    }
+
+    /**
+     * Appends a value to the current line, escaping it if needed. {@code null} is written as an empty value.
+     */
+    public void value(String s) throws IOException {
+        int length = s == null ? 0 : s.length();
+        // worst case: every char is a doubled quote, plus enclosing quotes and a delimiter
+        ensureCapacity(2 * length + 3);
+        if (valuesInLine++ > 0) {
+            buffer[position++] = delimiter;
+        }
+        if (length > 0) {
+            appendEscaped(s, length);
+        }
+    }
+
+    public void value(long value) throws IOException {
+        int start = beginFormatted();
+        position = AsciiFormat.putLong(buffer, start, value);
+        endFormatted(start);
+    }
+
+    /**
+     * Appends the shortest decimal representation that uniquely distinguishes the value, as
+     * {@link Double#toString(double)} does.
+     */
+    public void value(double value) throws IOException {
+        int start = beginFormatted();
+        position = AsciiFormat.putDouble(buffer, start, value, scratch);
+        endFormatted(start);
+    }
+
+    public void value(float value) throws IOException {
+        int start = beginFormatted();
+        position = AsciiFormat.putFloat(buffer, start, value, scratch);
+        endFormatted(start);
+    }
+
+    public void value(boolean value) throws IOException {
+        value(value ? "true" : "false");
+    }
+
+    public void value(char value) throws IOException {
+        beginValue();
+        appendToValue(value);
+        endValue();
+    }
+
+    public void value(LocalDate value) throws IOException {
+        int start = beginFormatted();
+        position = AsciiFormat.putLocalDate(buffer, start, value);
+        endFormatted(start);
+    }
+
+    public void value(LocalTime value) throws IOException {
+        int start = beginFormatted();
+        position = AsciiFormat.putLocalTime(buffer, start, value);
+        endFormatted(start);
+    }
+
+    public void value(LocalDateTime value) throws IOException {
+        int start = beginFormatted();
+        position = AsciiFormat.putLocalDateTime(buffer, start, value);
+        endFormatted(start);
+    }
+
+    /**
+     * Appends the instant as {@link Instant#toString()} does. Only instants outside of years 0000 to 9999 create an
+     * intermediate String.
+     */
+    public void value(Instant value) throws IOException {
+        if (!AsciiFormat.supports(value)) {
+            value(value.toString());
+            return;
+        }
+        int start = beginFormatted();
+        position = AsciiFormat.putInstant(buffer, start, value);
+        endFormatted(start);
+    }
+
+    /**
+     * Appends a value written by the converter. {@code null} is written as an empty value without calling the
+     * converter. Output of converters that never need quoting is copied to the buffer without scanning it.
+     */
+    public <V> void value(V value, CsvConverter<? super V> converter) throws IOException {
+        if (value == null) {
+            value((String) null);
+        } else if (converter.mayNeedQuoting()) {
+            beginValue();
+            converter.write(value, escapedOutput);
+            endValue();
+        } else {
+            ensureCapacity(1);
+            if (valuesInLine++ > 0) {
+                buffer[position++] = delimiter;
+            }
+            converter.write(value, rawOutput);
+        }
+    }
+
+    /**
+     * Appends a value as the reader writes it, copying its encoded cell from the cache if the value was written
+     * before. Otherwise the value is written by the reader and its encoded cell is cached, unless the buffer was
+     * flushed in between.
+     */
+    public void value(Object value, FieldReader reader, CellCache cache) throws IOException {
+        if (value == null || !cache.isEnabled()) {
+            reader.writeValue(value, this);
+            return;
+        }
+        char[] cell = cache.get(value);
+        if (cell != null) {
+            ensureCapacity(cell.length + 1);
+            if (valuesInLine++ > 0) {
+                buffer[position++] = delimiter;
+            }
+            System.arraycopy(cell, 0, buffer, position, cell.length);
+            position += cell.length;
+            return;
+        }
+        long flushesBefore = flushes;
+        int start = valuesInLine > 0 ? position + 1 : position;
+        reader.writeValue(value, this);
+        if (flushes == flushesBefore) {
+            cache.put(value, Arrays.copyOfRange(buffer, start, position));
+        }
+    }
+
+    /**
+     * Returns the cache of encoded cells of the column, creating it on first use.
+     */
+    CellCache cellCache(Object column, int capacity) {
+        if (cellCaches == null) {
+            cellCaches = new IdentityHashMap<>();
+        }
+        CellCache cache = cellCaches.get(column);
+        if (cache == null) {
+            cache = new CellCache(capacity);
+            cellCaches.put(column, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Appends the value of the column in the specified row, escaped as needed.
+     */
+    public void value(CsvColumn column, int row) throws IOException {
+        beginValue();
+        column.write(row, escapedOutput);
+        endValue();
+    }
+
+    /**
+     * Starts a formatted value, returning its start position. Reserves room for the delimiter, the longest
+     * formatted value and the enclosing quotes.
+     */
+    private int beginFormatted() throws IOException {
+        ensureCapacity(AsciiFormat.MAX_LENGTH + 3);
+        if (valuesInLine++ > 0) {
+            buffer[position++] = delimiter;
+        }
+        return position;
+    }
+
+    private void endFormatted(int start) {
+        if (plainValues) {
+            return;
+        }
+        valueStart = start;
+        valueQuoted = false;
+        markIfContainsDelimiter(start, position);
+        if (valueQuoted) {
+            System.arraycopy(buffer, start, buffer, start + 1, position - start);
+            buffer[start] = '"';
+            position++;
+            buffer[position++] = '"';
+        }
+        valueStart = -1;
+    }
+
+    /**
+     * Appends a value of any type to the current line. Arrays, including primitive arrays, and collections are
+     * written element by element in the configured {@link ArrayFormat}, boxed primitives and {@code java.time}
+     * values supported by {@link AsciiFormat} are formatted without creating a String, other objects are written
+     * using their {@code toString()} method. {@code null} is written as an empty value.
+     */
+    public void value(Object value) throws IOException {
+        if (value == null || value instanceof String) {
+            value((String) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            value(((Number) value).longValue());
+        } else if (value instanceof Double number) {
+            value(number.doubleValue());
+        } else if (value instanceof Float number) {
+            value(number.floatValue());
+        } else if (value instanceof Boolean bool) {
+            value(bool.booleanValue());
+        } else if (value instanceof Character c) {
+            value(c.charValue());
+        } else if (value instanceof LocalDate date) {
+            value(date);
+        } else if (value instanceof LocalDateTime dateTime) {
+            value(dateTime);
+        } else if (value instanceof LocalTime time) {
+            value(time);
+        } else if (value instanceof Instant instant) {
+            value(instant);
+        } else if (value instanceof Collection<?> collection) {
+            beginArray();
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    arraySeparator();
+                }
+                first = false;
+                appendElement(element);
+            }
+            endArray();
+        } else if (value.getClass().isArray()) {
+            array(value);
+        } else {
+            value(value.toString());
+        }
+    }
+
+    /**
+     * Appends a value as is, without escaping it, like the output of a converter that never needs quoting.
+     */
+    public void unquotedValue(String s) throws IOException {
+        ensureCapacity(1);
+        if (valuesInLine++ > 0) {
+            buffer[position++] = delimiter;
+        }
+        rawOutput.append(s);
+    }
+
+    /**
+     * Returns whether {@link #value(Object)} writes the value without calling its {@code toString()} method.
+     * {@code null}, Strings, boxed primitives, supported {@code java.time} values, arrays and collections are.
+     */
+    static boolean formatsNatively(Object value) {
+        return value == null || value instanceof String || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte || value instanceof Double
+                || value instanceof Float || value instanceof Boolean
+                || value instanceof Character || value instanceof LocalDate || value instanceof LocalDateTime
+                || value instanceof LocalTime || value instanceof Instant || value instanceof Collection<?>
+                || value.getClass().isArray();
+    }
+
+    private void array(Object array) throws IOException {
+        beginArray();
+        if (array instanceof Object[] objects) {
+            for (int i = 0; i < objects.length; i++) {
+                if (i > 0) {
+                    arraySeparator();
+                }
+                appendElement(objects[i]);
+            }
+        } else if (array instanceof int[] ints) {
+            for (int i = 0; i < ints.length; i++) {
+                if (i > 0) {
+                    arraySeparator();
+                }
+                appendToValue(ints[i]);
+            }
+        } else if (array instanceof long[] longs) {
+            for (int i = 0; i < longs.length; i++) {
+                if (i > 0) {
+                    arraySeparator();
+                }
+                appendToValue(longs[i]);
+            }
+        } else if (array instanceof double[] doubles) {
+            for (int i = 0; i < doubles.length; i++) {
+                if (i > 0) {
+                    arraySeparator();
+                }
+                appendToValue(doubles[i]);
+            }
+        } else if (array instanceof float[] floats) {
+            for (int i = 0; i < floats.length; i++) {
+                if (i > 0) {
+                    arraySeparator();
+                }
+                appendToValue(floats[i]);
+            }
+        } else if (array instanceof boolean[] booleans) {
+            for (int i = 0; i < booleans.length; i++) {
+                if (i > 0) {
+                    arraySeparator();
+                }
+                appendToValue(booleans[i] ? "true" : "false");
+            }
+        } else if (array instanceof char[] chars) {
+            for (int i = 0; i < chars.length; i++) {
+                if (i > 0) {
+                    arraySeparator();
+                }
+                appendToValue(chars[i]);
+            }
+        } else if (array instanceof short[] shorts) {
+            for (int i = 0; i < shorts.length; i++) {
+                if (i > 0) {
+                    arraySeparator();
+                }
+                appendToValue(shorts[i]);
+            }
+        } else if (array instanceof byte[] bytes) {
+            for (int i = 0; i < bytes.length; i++) {
+                if (i > 0) {
+                    arraySeparator();
+                }
+                appendToValue(bytes[i]);
+            }
+        }
+        endArray();
+    }
+
+    private void appendElement(Object element) throws IOException {
+        if (element == null) {
+            appendToValue("null");
+        } else if (element instanceof String string) {
+            appendToValue(string);
+        } else if (element instanceof Integer || element instanceof Long || element instanceof Short || element instanceof Byte) {
+            appendToValue(((Number) element).longValue());
+        } else if (element instanceof Double number) {
+            appendToValue(number.doubleValue());
+        } else if (element instanceof Float number) {
+            appendToValue(number.floatValue());
+        } else {
+            appendToValue(element.toString());
+        }
+    }
+
+    private void beginArray() throws IOException {
+        beginValue();
+        appendToValue(arrayFormat.prefix());
+    }
+
+    private void arraySeparator() throws IOException {
+        appendToValue(arrayFormat.separator());
+    }
+
+    private void endArray() throws IOException {
+        appendToValue(arrayFormat.suffix());
+        endValue();
+    }
+
+    /**
+     * Starts a value that is built from parts appended with the {@code appendToValue} methods.
+     */
+    public void beginValue() throws IOException {
+        ensureCapacity(1);
+        if (valuesInLine++ > 0) {
+            buffer[position++] = delimiter;
+        }
+        valueStart = position;
+        valueQuoted = false;
+    }
+
+    public void appendToValue(char c) throws IOException {
+        ensureCapacity(2);
+        appendEscaped(c);
+    }
+
+    public void appendToValue(CharSequence s) throws IOException {
+        int length = s.length();
+        ensureCapacity(2 * length);
+        for (int i = 0; i < length; i++) {
+            appendEscaped(s.charAt(i));
+        }
+    }
+
+    public void appendToValue(long value) throws IOException {
+        ensureCapacity(AsciiFormat.MAX_LENGTH);
+        appendedFormatted(position, AsciiFormat.putLong(buffer, position, value));
+    }
+
+    public void appendToValue(double value) throws IOException {
+        ensureCapacity(AsciiFormat.MAX_LENGTH);
+        appendedFormatted(position, AsciiFormat.putDouble(buffer, position, value, scratch));
+    }
+
+    public void appendToValue(float value) throws IOException {
+        ensureCapacity(AsciiFormat.MAX_LENGTH);
+        appendedFormatted(position, AsciiFormat.putFloat(buffer, position, value, scratch));
+    }
+
+    private void appendedFormatted(int start, int end) {
+        if (!plainValues) {
+            markIfContainsDelimiter(start, end);
+        }
+        position = end;
+    }
+
+    /**
+     * Finishes a value started with {@link #beginValue()}, enclosing it in quotes if any of its parts needs escaping.
+     */
+    public void endValue() throws IOException {
+        if (valueQuoted) {
+            ensureCapacity(2);
+            System.arraycopy(buffer, valueStart, buffer, valueStart + 1, position - valueStart);
+            buffer[valueStart] = '"';
+            position++;
+            buffer[position++] = '"';
+        }
+        valueStart = -1;
+    }
+
+    /**
+     * Appends a char of a value under construction, doubling quotes. Quotes only appear in quoted values, so the
+     * doubling is always correct. Requires 2 chars of capacity.
+     */
+    private void appendEscaped(char c) {
+        char[] buf = buffer;
+        if (c == '"') {
+            buf[position++] = '"';
+            valueQuoted = true;
+        } else if (c == delimiter) {
+            valueQuoted = true;
+        }
+        buf[position++] = c;
+        if (c == newLineEnd && !valueQuoted && endsWithNewLine()) {
+            valueQuoted = true;
+        }
+    }
+
+    private boolean endsWithNewLine() {
+        int length = newLine.length();
+        int start = position - length;
+        if (length == 0 || start < valueStart) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[start + i] != newLine.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void markIfContainsDelimiter(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == delimiter || buffer[i] == newLineStart) {
+                valueQuoted = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Terminates the current line. Does nothing if no values were written to it.
+     */
+    public void endLine() throws IOException {
+        if (valuesInLine == 0) {
+            return;
+        }
+        valuesInLine = 0;
+        linesWritten++;
+        int length = newLine.length();
+        ensureCapacity(length);
+        newLine.getChars(0, length, buffer, position);
+        position += length;
+    }
+
+    /**
+     * Writes already encoded lines, e.g. a chunk encoded by another {@code Writer}, after the buffered lines.
+     *
+     * @param bytes The UTF-8 encoded size of the lines.
+     * @param lines The number of lines.
+     */
+    public void writeEncoded(CharArrayWriter encoded, long bytes, long lines) throws IOException {
+        flushBuffer();
+        CsvFlushEvent event = flushEvent();
+        long start = begin(event);
+        encoded.writeTo(out);
+        bytesWritten += bytes;
+        flushedBytes += bytes;
+        linesWritten += lines;
+        flushed(event, start, bytes);
+    }
+
+    /**
+     * Appends already encoded lines, e.g. a row encoded by another {@code Writer}, to the buffer.
+     *
+     * @param lines The number of lines.
+     */
+    public void writeEncoded(char[] encoded, long lines) throws IOException {
+        ensureCapacity(encoded.length);
+        System.arraycopy(encoded, 0, buffer, position, encoded.length);
+        position += encoded.length;
+        linesWritten += lines;
+    }
+
+    /**
+     * Returns the UTF-8 encoded size of everything written so far, including buffered lines. The size is exact for
+     * well-formed text, unpaired surrogates are counted as two bytes.
+     */
+    public long bytesWritten() {
+        countBytes();
+        return bytesWritten;
+    }
+
+    /**
+     * Returns the number of lines written so far, including buffered lines.
+     */
+    public long linesWritten() {
+        return linesWritten;
+    }
+
+    private void countBytes() {
+        // a value under construction may still get its opening quote, so it is counted once it's finished
+        int end = valueStart >= 0 ? valueStart : position;
+        char[] buf = buffer;
+        long bytes = 0;
+        for (int i = countedPosition; i < end; i++) {
+            char c = buf[i];
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800 || Character.isSurrogate(c)) {
+                bytes += 2;
+            } else {
+                bytes += 3;
+            }
+        }
+        bytesWritten += bytes;
+        countedPosition = end;
+    }
+
+    private void appendEscaped(String s, int length) {
+        char[] buf = buffer;
+        int start = position;
+        int end = start + length;
+        s.getChars(0, length, buf, start);
+        int found = SCANNER.indexOfAny(buf, start, end, '"', delimiter, newLineStart);
+        // a newline start that doesn't begin the whole newline needs no quoting
+        while (found < end && buf[found] != '"' && buf[found] != delimiter && !s.startsWith(newLine, found - start)) {
+            found = SCANNER.indexOfAny(buf, found + 1, end, '"', delimiter, newLineStart);
+        }
+        int p = end;
+        if (found < end) {
+            // the value has to be quoted: shift the part before the first special char to make room for the opening
+            // quote and escape the rest again from the string
+            System.arraycopy(buf, start, buf, start + 1, found - start);
+            buf[start] = '"';
+            p = found + 1;
+            for (int i = found - start; i < length; i++) {
+                char c = s.charAt(i);
+                if (c == '"') {
+                    buf[p++] = '"';
+                }
+                buf[p++] = c;
+            }
+            buf[p++] = '"';
+        }
+        position = p;
+    }
+
+    private void ensureCapacity(int required) throws IOException {
+        if (buffer.length - position >= required) {
+            return;
+        }
+        flushBuffer();
+        if (buffer.length - position < required) {
+            buffer = Arrays.copyOf(buffer, Math.max(position + required, buffer.length * 2));
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        flushBuffer(false);
+    }
+
+    /**
+     * Writes the buffer up to the value under construction, if any, to the underlying output and optionally flushes
+     * the output.
+     */
+    private void flushBuffer(boolean flushOut) throws IOException {
+        // a value under construction stays in the buffer and is moved to its start
+        int end = valueStart >= 0 ? valueStart : position;
+        if (end == 0 && !flushOut) {
+            return;
+        }
+        CsvFlushEvent event = flushEvent();
+        long start = begin(event);
+        long bytes = 0;
+        if (end > 0) {
+            flushes++;
+            countBytes();
+            bytes = bytesWritten - flushedBytes;
+            flushedBytes = bytesWritten;
+            out.write(buffer, 0, end);
+            System.arraycopy(buffer, end, buffer, 0, position - end);
+            position -= end;
+            countedPosition = 0;
+            if (valueStart >= 0) {
+                valueStart = 0;
+            }
+        }
+        if (flushOut) {
+            out.flush();
+        }
+        flushed(event, start, bytes);
+    }
+
+    /**
+     * Returns a new flush event if this writer is observed and a recording enables the event, otherwise
+     * {@code null}, so unrecorded flushes allocate nothing.
+     */
+    private CsvFlushEvent flushEvent() {
+        return observed && JfrEvents.flushEnabled() ? new CsvFlushEvent() : null;
+    }
+
+    private long begin(CsvFlushEvent event) {
+        if (event != null) {
+            event.begin();
+        }
+        return listener != null ? System.nanoTime() : 0;
+    }
+
+    private void flushed(CsvFlushEvent event, long start, long bytes) {
+        if (listener != null) {
+            listener.onFlush(bytes, System.nanoTime() - start);
+        }
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Writes buffered lines to the underlying output and flushes it, leaving it open.
+     */
+    public void flush() throws IOException {
+        flushBuffer(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (out) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Output of converters that may need quoting, appending to the value under construction.
+     */
+    private final class EscapedOutput implements CsvOutput {
+        @Override
+        public CsvOutput append(char c) throws IOException {
+            appendToValue(c);
+            return this;
+        }
+
+        @Override
+        public CsvOutput append(CharSequence s) throws IOException {
+            appendToValue(s == null ? "null" : s);
+            return this;
+        }
+
+        @Override
+        public CsvOutput append(long value) throws IOException {
+            appendToValue(value);
+            return this;
+        }
+
+        @Override
+        public CsvOutput append(double value) throws IOException {
+            appendToValue(value);
+            return this;
+        }
+    }
+
+    /**
+     * Output of converters that never need quoting, copying to the buffer as is. No value is under construction, so
+     * the buffer may be flushed between appends.
+     */
+    private final class RawOutput implements CsvOutput {
+        @Override
+        public CsvOutput append(char c) throws IOException {
+            ensureCapacity(1);
+            buffer[position++] = c;
+            return this;
+        }
+
+        @Override
+        public CsvOutput append(CharSequence s) throws IOException {
+            CharSequence chars = s == null ? "null" : s;
+            int length = chars.length();
+            ensureCapacity(length);
+            if (chars instanceof String string) {
+                string.getChars(0, length, buffer, position);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    buffer[position + i] = chars.charAt(i);
+                }
+            }
+            position += length;
+            return this;
+        }
+
+        @Override
+        public CsvOutput append(long value) throws IOException {
+            ensureCapacity(AsciiFormat.MAX_LENGTH);
+            position = AsciiFormat.putLong(buffer, position, value);
+            return this;
+        }
+
+        @Override
+        public CsvOutput append(double value) throws IOException {
+            ensureCapacity(AsciiFormat.MAX_LENGTH);
+            position = AsciiFormat.putDouble(buffer, position, value, scratch);
+            return this;
+        }
+    }
+}
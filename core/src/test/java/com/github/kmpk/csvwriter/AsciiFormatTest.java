@@ -0,0 +1,99 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsciiFormatTest {
+    private final char[] buffer = new char[AsciiFormat.MAX_LENGTH];
+    private final StringBuilder scratch = new StringBuilder();
+    private final Random random = new Random(42);
+
+    @Test
+    void putLong() {
+        for (long value : new long[]{0, 1, -1, 9, 10, -10, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertEquals(Long.toString(value), format(AsciiFormat.putLong(buffer, 0, value)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            long value = random.nextLong() >> random.nextInt(64);
+            assertEquals(Long.toString(value), format(AsciiFormat.putLong(buffer, 0, value)));
+        }
+    }
+
+    @Test
+    void putDouble() {
+        double[] values = {0.0, -0.0, 1.0, -1.0, 0.1, 1.5, 9_999_999.0, 1e7, -1e7, 1e-5, 123456.789, Double.MAX_VALUE,
+                Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (double value : values) {
+            assertEquals(Double.toString(value), format(AsciiFormat.putDouble(buffer, 0, value, scratch)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            assertEquals(Double.toString(value), format(AsciiFormat.putDouble(buffer, 0, value, scratch)));
+        }
+    }
+
+    @Test
+    void putFloat() {
+        float[] values = {0f, -0f, 1f, -2.5f, 0.1f, 1e7f, 9_999_999f, Float.MAX_VALUE, Float.MIN_VALUE, Float.NaN};
+        for (float value : values) {
+            assertEquals(Float.toString(value), format(AsciiFormat.putFloat(buffer, 0, value, scratch)));
+        }
+    }
+
+    @Test
+    void putTemporals() {
+        LocalDate[] dates = {LocalDate.of(2024, 2, 29), LocalDate.of(1, 1, 1), LocalDate.of(-5, 12, 31),
+                LocalDate.of(12345, 6, 7), LocalDate.of(-12345, 6, 7), LocalDate.MIN, LocalDate.MAX};
+        for (LocalDate date : dates) {
+            assertEquals(date.toString(), format(AsciiFormat.putLocalDate(buffer, 0, date)));
+        }
+        LocalTime[] times = {LocalTime.MIDNIGHT, LocalTime.of(10, 15), LocalTime.of(10, 15, 30),
+                LocalTime.of(10, 0, 0, 5), LocalTime.of(10, 0, 0, 120_000_000), LocalTime.of(0, 0, 0, 123_456_000),
+                LocalTime.MAX};
+        for (LocalTime time : times) {
+            assertEquals(time.toString(), format(AsciiFormat.putLocalTime(buffer, 0, time)));
+        }
+        LocalDateTime dateTime = LocalDateTime.of(2024, 1, 31, 23, 59, 1, 1000);
+        assertEquals(dateTime.toString(), format(AsciiFormat.putLocalDateTime(buffer, 0, dateTime)));
+        assertEquals(LocalDateTime.MAX.toString(), format(AsciiFormat.putLocalDateTime(buffer, 0, LocalDateTime.MAX)));
+    }
+
+    @Test
+    void putInstant() {
+        Instant[] instants = {Instant.EPOCH, Instant.ofEpochSecond(-1), Instant.ofEpochSecond(0, 1),
+                Instant.parse("0000-01-01T00:00:00Z"), Instant.parse("9999-12-31T23:59:59.999999999Z"),
+                Instant.parse("2000-02-29T12:00:00.5Z")};
+        for (Instant instant : instants) {
+            assertTrue(AsciiFormat.supports(instant));
+            assertEquals(instant.toString(), format(AsciiFormat.putInstant(buffer, 0, instant)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            Instant instant = Instant.ofEpochSecond(random.nextLong(-62_167_219_200L, 253_402_300_800L),
+                    random.nextInt(1_000_000_000));
+            assertEquals(instant.toString(), format(AsciiFormat.putInstant(buffer, 0, instant)));
+        }
+        assertFalse(AsciiFormat.supports(Instant.parse("-0001-12-31T23:59:59Z")));
+        assertFalse(AsciiFormat.supports(Instant.parse("+10000-01-01T00:00:00Z")));
+    }
+
+    @Test
+    void mayContain() {
+        assertTrue(AsciiFormat.mayContain('.'));
+        assertTrue(AsciiFormat.mayContain(':'));
+        assertFalse(AsciiFormat.mayContain(','));
+        assertFalse(AsciiFormat.mayContain('\n'));
+    }
+
+    private String format(int end) {
+        return new String(buffer, 0, end);
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CellCacheTest {
+    @Test
+    void testEviction() {
+        CellCache cache = new CellCache(2);
+        cache.put("a", "a".toCharArray());
+        cache.put("b", "b".toCharArray());
+        assertArrayEquals("a".toCharArray(), cache.get("a"));
+
+        cache.put("c", "c".toCharArray());
+
+        assertNull(cache.get("b"));
+        assertArrayEquals("a".toCharArray(), cache.get("a"));
+        assertArrayEquals("c".toCharArray(), cache.get("c"));
+    }
+
+    @Test
+    void testDisable() {
+        CellCache repeated = new CellCache(4);
+        CellCache distinct = new CellCache(4);
+        for (int i = 0; i < CellCache.SAMPLE_SIZE; i++) {
+            if (repeated.get(i % 4) == null) {
+                repeated.put(i % 4, new char[0]);
+            }
+            if (distinct.get(i) == null) {
+                distinct.put(i, new char[0]);
+            }
+        }
+
+        assertTrue(repeated.isEnabled());
+        assertFalse(distinct.isEnabled());
+        distinct.put(1, new char[0]);
+        assertNull(distinct.get(1));
+    }
+
+    @Test
+    void testDisableOnHit() {
+        CellCache cache = new CellCache(4);
+        cache.put("repeated", new char[0]);
+        for (int i = 0; i < CellCache.SAMPLE_SIZE - 1; i++) {
+            Object value = i % 10 == 0 ? "repeated" : i;
+            if (cache.get(value) == null) {
+                cache.put(value, new char[0]);
+            }
+        }
+
+        // the last lookup of the sample would hit
+        cache.put("last", new char[0]);
+        assertNull(cache.get("last"));
+        assertFalse(cache.isEnabled());
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompressionSettingsTest {
+    private static final String TEXT = IntStream.range(0, 5_000)
+            .mapToObj(i -> i + ",value " + (i % 17) + ",é\r\n")
+            .collect(Collectors.joining());
+
+    private Path testFile;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        testFile = Files.createTempFile("test", ".csv.gz");
+        testFile.toFile().deleteOnExit();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"GZIP, 1", "GZIP, 3", "DEFLATE, 1", "DEFLATE, 3"})
+    void write(Compression compression, int threads) throws IOException {
+        OutputSettings settings = new CsvWriterBuilder()
+                .compression(compression)
+                .compressionThreads(threads)
+                .compressionBufferSize(1000)
+                .compressionLevel(9)
+                .outputSettings();
+
+        try (java.io.Writer writer = settings.open(testFile.toFile())) {
+            writer.write(TEXT);
+        }
+
+        assertEquals(TEXT, decompress(compression));
+    }
+
+    @Test
+    void writeEmptyParallel() throws IOException {
+        OutputSettings settings = new CsvWriterBuilder().compression(Compression.GZIP).compressionThreads(2).outputSettings();
+
+        settings.open(testFile.toFile()).close();
+
+        assertEquals("", decompress(Compression.GZIP));
+    }
+
+    @Test
+    void appendGzip() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriterBuilder().compression(Compression.GZIP).compressionThreads(2).append(true).build();
+        List<TestClass> values = Arrays.asList(new TestClass("a"), new TestClass("b"));
+
+        writer.writeToFile(values, TestClass.class, testFile.toFile());
+        writer.writeToFile(values, TestClass.class, testFile.toFile());
+
+        assertEquals("field\r\na\r\nb\r\na\r\nb\r\n", decompress(Compression.GZIP));
+    }
+
+    private String decompress(Compression compression) throws IOException {
+        InputStream file = Files.newInputStream(testFile);
+        try (InputStream in = compression == Compression.GZIP ? new GZIPInputStream(file) : new InflaterInputStream(file)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class TestClass {
+        private final String field;
+
+        private TestClass(String field) {
+            this.field = field;
+        }
+    }
+}
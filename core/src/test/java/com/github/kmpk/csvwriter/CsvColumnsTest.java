@@ -0,0 +1,60 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static com.github.kmpk.csvwriter.TestUtil.readFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvColumnsTest {
+    private Path testFile;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        testFile = Files.createTempFile("test", ".csv");
+        testFile.toFile().deleteOnExit();
+        for (int i = 1; i <= 3; i++) {
+            OutputSettings.partFile(testFile.toFile(), i).deleteOnExit();
+        }
+    }
+
+    @Test
+    void write() throws IOException {
+        CsvColumns columns = new CsvColumns(3)
+                .column("ts", new long[]{1, 2, 3, 4})
+                .column("value", new double[]{0.5, -1, 1e20})
+                .column("ok", new boolean[]{true, false, true})
+                .column("name", new String[]{"a", null, "c,d"})
+                .column("day", new LocalDate[]{LocalDate.of(2024, 1, 2), null, null})
+                .column("code", new Integer[]{7, 8, 9}, (value, out) -> out.append('#').append(value.longValue()))
+                .column("index", (row, out) -> out.append(row * 10L).append(row == 1 ? "\"" : ""));
+        StringBuilder out = new StringBuilder();
+
+        assertThrows(IllegalArgumentException.class, () -> columns.column("short", new int[2]));
+        new CsvWriterBuilder().build().write(columns, out);
+
+        assertEquals("""
+                ts,value,ok,name,day,code,index\r
+                1,0.5,true,a,2024-01-02,#7,0\r
+                2,-1.0,false,,,#8,"10\"\""\r
+                3,1.0E20,true,"c,d",,#9,20\r
+                """, out.toString());
+    }
+
+    @Test
+    void writeToPartFiles() throws IOException {
+        CsvColumns columns = new CsvColumns(5).column("i", new int[]{1, 2, 3, 4, 5});
+        CsvWriter writer = new CsvWriterBuilder().newLine("\n").maxRowsPerFile(2).build();
+
+        writer.writeToFile(columns, testFile.toFile());
+
+        assertEquals("i\n1\n2\n", readFile(OutputSettings.partFile(testFile.toFile(), 1).toPath()));
+        assertEquals("i\n5\n", readFile(OutputSettings.partFile(testFile.toFile(), 3).toPath()));
+    }
+}
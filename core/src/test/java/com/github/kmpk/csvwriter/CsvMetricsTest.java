@@ -0,0 +1,125 @@
+package com.github.kmpk.csvwriter;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvMetricsTest {
+    private Path testFile;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        testFile = Files.createTempFile("test", ".csv");
+        testFile.toFile().deleteOnExit();
+    }
+
+    @Test
+    void metrics() throws Exception {
+        CsvMetrics metrics = new CsvMetrics();
+        CsvWriter writer = new CsvWriterBuilder().metrics(metrics).build();
+        List<Row> rows = IntStream.range(0, 10_000).mapToObj(Row::new).toList();
+
+        writer.writeToFile(rows, Row.class, testFile.toFile());
+        writer.write(rows.iterator(), Row.class, new StringWriter());
+        writer.writeToFileAsync(rows, Row.class, testFile.toFile()).get();
+
+        assertEquals(3, metrics.writes());
+        assertEquals(30_000, metrics.rows());
+        assertEquals(3 * Files.size(testFile), metrics.bytes());
+        assertTrue(metrics.flushes() >= 3);
+        assertTrue(metrics.ioTime().compareTo(Duration.ZERO) > 0);
+        assertTrue(metrics.writeTime().compareTo(Duration.ZERO) > 0);
+        assertTrue(metrics.writeTimePercentile(100).compareTo(metrics.writeTimePercentile(50)) >= 0);
+        assertTrue(metrics.flushTimePercentile(99).compareTo(Duration.ZERO) > 0);
+    }
+
+    @Test
+    void percentiles() {
+        CsvMetrics metrics = new CsvMetrics();
+        assertEquals(Duration.ZERO, metrics.flushTimePercentile(50));
+
+        for (int i = 0; i < 99; i++) {
+            metrics.onFlush(0, 100);
+        }
+        metrics.onFlush(0, 1_000_000);
+
+        assertEquals(Duration.ofNanos(127), metrics.flushTimePercentile(50));
+        assertEquals(Duration.ofNanos(127), metrics.flushTimePercentile(99));
+        assertEquals(Duration.ofNanos(1_048_575), metrics.flushTimePercentile(100));
+    }
+
+    @Test
+    void jfrEvents() throws Exception {
+        Path recordingFile = Files.createTempFile("test", ".jfr");
+        recordingFile.toFile().deleteOnExit();
+        CsvWriter writer = new CsvWriterBuilder().build();
+        try (Recording recording = new Recording()) {
+            recording.enable(CsvWriteEvent.class).withoutThreshold();
+            recording.enable(CsvFlushEvent.class).withoutThreshold();
+            recording.start();
+            writer.writeToFile(List.of(new Row(1), new Row(2)), Row.class, testFile.toFile());
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        RecordedEvent write = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.github.kmpk.csvwriter.Write"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, write.getLong("rows"));
+        assertEquals(Files.size(testFile), write.getLong("bytes"));
+        assertEquals(testFile.toString(), write.getString("target"));
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.github.kmpk.csvwriter.Flush")));
+    }
+
+    @Test
+    void noJfrWithoutRecording() throws Exception {
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        Process process = new ProcessBuilder(java.toString(), "-Xlog:class+load=info",
+                "--add-modules", "jdk.incubator.vector", "-cp", System.getProperty("java.class.path"),
+                FirstWrite.class.getName(), testFile.toString())
+                .redirectErrorStream(true)
+                .start();
+        String log = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+        assertEquals(0, process.waitFor(), log);
+        assertEquals("value\r\n1\r\n2\r\n", TestUtil.readFile(testFile));
+        assertFalse(log.contains(CsvWriteEvent.class.getName()), "write event loaded");
+        assertFalse(log.contains(CsvFlushEvent.class.getName()), "flush event loaded");
+        assertFalse(log.contains("jdk.jfr.internal.MetadataRepository"), "JFR initialized");
+    }
+
+    /**
+     * Writes two rows in a fresh JVM without recordings.
+     */
+    static class FirstWrite {
+        public static void main(String[] args) throws Exception {
+            new CsvWriterBuilder().build().writeToFile(List.of(new Row(1), new Row(2)), Row.class, new File(args[0]));
+        }
+    }
+
+    private static class Row {
+        private final int value;
+
+        private Row(int value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.kmpk.csvwriter.TestUtil.readFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvSinkTest {
+    private Path testFile;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        testFile = Files.createTempFile("test", ".csv");
+        testFile.toFile().deleteOnExit();
+    }
+
+    @Test
+    void writeConcurrently() throws Exception {
+        int threads = 8;
+        int rowsPerThread = 2_000;
+        CsvWriter writer = new CsvWriterBuilder().sinkCapacity(16).sinkBatchBytes(1024).build();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (CsvSink<Row> sink = writer.openSink(Row.class, testFile.toFile())) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < rowsPerThread; i++) {
+                        sink.write(new Row(thread, i));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<String> lines = readFile(testFile).lines().toList();
+        assertEquals("thread,index", lines.get(0));
+        assertEquals(threads * rowsPerThread + 1, lines.size());
+        Set<String> unique = new HashSet<>(lines.subList(1, lines.size()));
+        assertEquals(threads * rowsPerThread, unique.size());
+        assertTrue(unique.contains((threads - 1) + "," + (rowsPerThread - 1)));
+    }
+
+    @Test
+    void flush() throws Exception {
+        CsvWriter writer = new CsvWriterBuilder().includeHeader(false).sinkFlushInterval(Duration.ofHours(1)).build();
+        try (CsvSink<Row> sink = writer.openSink(Row.class, testFile.toFile())) {
+            sink.write(new Row(1, 2));
+            sink.flush();
+            assertEquals("1,2\r\n", readFile(testFile));
+            sink.write(null);
+            sink.write(new Row(3, 4));
+        }
+        assertEquals("1,2\r\n3,4\r\n", readFile(testFile));
+    }
+
+    @Test
+    void flushByInterval() throws Exception {
+        CsvWriter writer = new CsvWriterBuilder().includeHeader(false).sinkFlushInterval(Duration.ofMillis(10)).build();
+        try (CsvSink<Row> sink = writer.openSink(Row.class, testFile.toFile())) {
+            sink.write(new Row(1, 2));
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (readFile(testFile).isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals("1,2\r\n", readFile(testFile));
+        }
+    }
+
+    @Test
+    void writeClosed() throws Exception {
+        CsvSink<Row> sink = new CsvWriterBuilder().build().openSink(Row.class, testFile.toFile());
+        sink.close();
+        sink.close();
+
+        assertThrows(IllegalStateException.class, () -> sink.write(new Row(1, 2)));
+        assertEquals("thread,index\r\n", readFile(testFile));
+    }
+
+    @Test
+    void openRolling() {
+        CsvWriter writer = new CsvWriterBuilder().maxRowsPerFile(10).build();
+
+        assertThrows(IllegalStateException.class, () -> writer.openSink(Row.class, testFile.toFile()));
+    }
+
+    private static class Row {
+        @CsvHint(order = 1)
+        private final int thread;
+        @CsvHint(order = 2)
+        private final int index;
+
+        private Row(int thread, int index) {
+            this.thread = thread;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,650 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.github.kmpk.csvwriter.TestUtil.readFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvWriterTest {
+    private static final TestClass[] TEST_VALUES = {new TestClass("s1", 1), new TestClass(null, 2), null};
+    private static final String TEST_RESULT = """
+            int,String\r
+            1,s1\r
+            2,\r
+            ,\r
+            """;
+    private static final String TEST_RESULT_IGNORE_NULL = """
+            int,String\r
+            1,s1\r
+            2,\r
+            """;
+    private static final String TEST_RESULT_NO_HEADER = """
+            1,s1\r
+            2,\r
+            ,\r
+            """;
+    private Path testFile;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        testFile = Files.createTempFile("test", ".csv");
+        testFile.toFile().deleteOnExit();
+        for (int i = 1; i <= 4; i++) {
+            OutputSettings.partFile(testFile.toFile(), i).deleteOnExit();
+        }
+    }
+
+    @Test
+    void writeSingle() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, false);
+
+        writer.writeToFile(new TestClass("s1", 1), testFile.toFile());
+
+        String expected = """
+                int,String\r
+                1,s1\r
+                """;
+        assertEquals(expected, readFile(testFile));
+    }
+
+    @Test
+    void writeSingleNoHeader() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", false, false);
+
+        writer.writeToFile(new TestClass("s1", 1), testFile.toFile());
+
+        String expected = """
+                1,s1\r
+                """;
+        assertEquals(expected, readFile(testFile));
+    }
+
+    @Test
+    void writeArray() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, false);
+
+        writer.writeToFile(TEST_VALUES, TestClass.class, testFile.toFile());
+
+        assertEquals(TEST_RESULT, readFile(testFile));
+    }
+
+    @Test
+    void writeArrayIgnoreNull() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, true);
+
+        writer.writeToFile(TEST_VALUES, TestClass.class, testFile.toFile());
+        assertEquals(TEST_RESULT_IGNORE_NULL, readFile(testFile));
+    }
+
+    @Test
+    void writeArrayNoHeader() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", false, false);
+
+        writer.writeToFile(TEST_VALUES, TestClass.class, testFile.toFile());
+        assertEquals(TEST_RESULT_NO_HEADER, readFile(testFile));
+    }
+
+    @Test
+    void writeCollection() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, false);
+
+        writer.writeToFile(Arrays.asList(TEST_VALUES), TestClass.class, testFile.toFile());
+        assertEquals(TEST_RESULT, readFile(testFile));
+    }
+
+    @Test
+    void writeCollectionIgnoreNull() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, true);
+
+        writer.writeToFile(Arrays.asList(TEST_VALUES), TestClass.class, testFile.toFile());
+        assertEquals(TEST_RESULT_IGNORE_NULL, readFile(testFile));
+    }
+
+    @Test
+    void writeCollectionNoHeader() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", false, false);
+
+        writer.writeToFile(Arrays.asList(TEST_VALUES), TestClass.class, testFile.toFile());
+        assertEquals(TEST_RESULT_NO_HEADER, readFile(testFile));
+    }
+
+    @Test
+    void writeCollectionEscaping() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, false);
+
+        List<TestClass> objects = Arrays.asList(new TestClass("s1\r\n", 1), new TestClass("a,b,c,d", 2), new TestClass("\"asd\"", 3));
+
+        writer.writeToFile(objects, TestClass.class, testFile.toFile());
+
+        String expected = """
+                int,String\r
+                1,"s1\r\n"\r
+                2,"a,b,c,d"\r
+                3,\"""asd""\"\r
+                """;
+        assertEquals(expected, readFile(testFile));
+    }
+
+    @Test
+    void writeIterator() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, false);
+
+        writer.writeToFile(Arrays.asList(TEST_VALUES).iterator(), TestClass.class, testFile.toFile());
+        assertEquals(TEST_RESULT, readFile(testFile));
+    }
+
+    @Test
+    void writeStream() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, true);
+
+        writer.writeToFile(Stream.of(TEST_VALUES), TestClass.class, testFile.toFile());
+        assertEquals(TEST_RESULT_IGNORE_NULL, readFile(testFile));
+    }
+
+    @Test
+    void writeIterable() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", false, false);
+        Iterable<TestClass> iterable = () -> Arrays.asList(TEST_VALUES).iterator();
+
+        writer.writeToFile(iterable, TestClass.class, testFile.toFile());
+        assertEquals(TEST_RESULT_NO_HEADER, readFile(testFile));
+    }
+
+    @Test
+    void writeAppendable() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, false);
+        StringBuilder builder = new StringBuilder();
+
+        writer.write(Arrays.asList(TEST_VALUES).iterator(), TestClass.class, builder);
+        assertEquals(TEST_RESULT, builder.toString());
+    }
+
+    @Test
+    void writeOutputStream() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.write(Arrays.asList(TEST_VALUES).iterator(), TestClass.class, out);
+        assertEquals(TEST_RESULT, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeChannel() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, false);
+
+        try (FileChannel channel = FileChannel.open(testFile, StandardOpenOption.WRITE)) {
+            writer.write(Arrays.asList(TEST_VALUES).iterator(), TestClass.class, channel);
+        }
+        assertEquals(TEST_RESULT, readFile(testFile));
+    }
+
+    @Test
+    void writeCollectionParallel() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, false, 4, 3);
+        List<TestClass> objects = IntStream.range(0, 100)
+                .mapToObj(i -> i % 7 == 0 ? null : new TestClass("s" + i, i))
+                .toList();
+
+        writer.writeToFile(objects, TestClass.class, testFile.toFile());
+
+        StringBuilder expected = new StringBuilder("int,String\r\n");
+        for (TestClass object : objects) {
+            expected.append(object == null ? "," : object.field2 + "," + object.field1).append("\r\n");
+        }
+        assertEquals(expected.toString(), readFile(testFile));
+    }
+
+    @Test
+    void writeArrayParallel() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriter(',', "\r\n", true, false, 2, 1);
+
+        writer.writeToFile(TEST_VALUES, TestClass.class, testFile.toFile());
+        assertEquals(TEST_RESULT, readFile(testFile));
+    }
+
+    @Test
+    void writeAppend() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriterBuilder().append(true).ignoreNullElements(false).build();
+
+        writer.writeToFile(Arrays.asList(TEST_VALUES), TestClass.class, testFile.toFile());
+        writer.writeToFile(Arrays.asList(TEST_VALUES), TestClass.class, testFile.toFile());
+
+        assertEquals(TEST_RESULT + TEST_RESULT_NO_HEADER, readFile(testFile));
+    }
+
+    @Test
+    void writeRollingByRows() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriterBuilder().maxRowsPerFile(2).ignoreNullElements(false).build();
+
+        writer.writeToFile(Arrays.asList(TEST_VALUES), TestClass.class, testFile.toFile());
+
+        assertEquals("""
+                int,String\r
+                1,s1\r
+                2,\r
+                """, readFile(OutputSettings.partFile(testFile.toFile(), 1).toPath()));
+        assertEquals("""
+                int,String\r
+                ,\r
+                """, readFile(OutputSettings.partFile(testFile.toFile(), 2).toPath()));
+        assertFalse(OutputSettings.partFile(testFile.toFile(), 3).exists());
+    }
+
+    @Test
+    void writeRollingByBytes() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriterBuilder().maxBytesPerFile(1).includeHeader(false).ignoreNullElements(false).build();
+
+        writer.writeToFile(Arrays.asList(TEST_VALUES), TestClass.class, testFile.toFile());
+
+        assertEquals("1,s1\r\n", readFile(OutputSettings.partFile(testFile.toFile(), 1).toPath()));
+        assertEquals("2,\r\n", readFile(OutputSettings.partFile(testFile.toFile(), 2).toPath()));
+        assertEquals(",\r\n", readFile(OutputSettings.partFile(testFile.toFile(), 3).toPath()));
+        assertFalse(OutputSettings.partFile(testFile.toFile(), 4).exists());
+    }
+
+    @Test
+    void writeWithConverters() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriterBuilder()
+                .converter(Integer.class, CsvConverter.unquoted((value, out) -> out.append('#').append(value.longValue())))
+                .converter(String.class, (value, out) -> out.append(value).append(','))
+                .ignoreNullElements(false)
+                .build();
+
+        writer.writeToFile(Arrays.asList(TEST_VALUES), TestClass.class, testFile.toFile());
+
+        assertEquals("""
+                int,String\r
+                #1,"s1,"\r
+                #2,\r
+                ,\r
+                """, readFile(testFile));
+    }
+
+    @Test
+    void writeWithGetters() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriterBuilder()
+                .accessStrategy(AccessStrategy.GETTERS)
+                .lookup(MethodHandles.lookup())
+                .build();
+
+        writer.writeToFile(List.of(new TestBean("b1", 1), new TestBean("b2", 2)), TestBean.class, testFile.toFile());
+
+        assertEquals("""
+                name,size\r
+                b1,1\r
+                b2,2\r
+                """, readFile(testFile));
+    }
+
+    @Test
+    void writeSelectedColumns() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriterBuilder()
+                .columns("String")
+                .rowFilter(TestClass.class, row -> row.field2 != 2)
+                .build();
+
+        writer.writeToFile(Arrays.asList(TEST_VALUES), TestClass.class, testFile.toFile());
+
+        assertEquals("""
+                String\r
+                s1\r
+                """, readFile(testFile));
+    }
+
+    @Test
+    void writeColumnOrders() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriterBuilder().columnOrders(2, 1).build();
+
+        writer.writeToFile(Arrays.asList(TEST_VALUES), TestClass.class, testFile.toFile());
+
+        assertEquals("""
+                String,int\r
+                s1,1\r
+                ,2\r
+                """, readFile(testFile));
+    }
+
+    @Test
+    void writeUnknownColumn() {
+        CsvWriter writer = new CsvWriterBuilder().columns("missing").build();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.writeToFile(Arrays.asList(TEST_VALUES), TestClass.class, testFile.toFile()));
+    }
+
+    @Test
+    void writeRowFilterOfSubtype() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriterBuilder()
+                .polymorphic(Circle.class, Square.class)
+                .rowFilter(Circle.class, circle -> circle.radius() > 2)
+                .build();
+
+        writer.writeToFile(List.of(new Circle(1, 2.5), new Square(2, 3), new Circle(3, 1)), Figure.class,
+                testFile.toFile());
+
+        assertEquals("""
+                id,radius,side\r
+                1,2.5,\r
+                2,,3\r
+                """, readFile(testFile));
+    }
+
+    @Test
+    void buildRowFilterWithoutType() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsvWriterBuilder().rowFilter(null, row -> true).build());
+    }
+
+    @Test
+    void buildDuplicateColumns() {
+        assertThrows(IllegalArgumentException.class, () -> new CsvWriterBuilder().columns("a", "a").build());
+    }
+
+    @Test
+    void writeFlattened() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriterBuilder().flattenDepth(1).columns("id", "point.x").build();
+
+        writer.writeToFile(List.of(new Shape(1, new Point(2, 3)), new Shape(2, null)), Shape.class, testFile.toFile());
+
+        assertEquals("""
+                id,point.x\r
+                1,2\r
+                2,\r
+                """, readFile(testFile));
+    }
+
+    @Test
+    void buildNegativeFlattenDepth() {
+        assertThrows(IllegalArgumentException.class, () -> new CsvWriterBuilder().flattenDepth(-1).build());
+    }
+
+    @Test
+    void writePolymorphic() throws IOException, IllegalAccessException {
+        CsvWriter writer = new CsvWriterBuilder().polymorphic(Circle.class, Square.class).build();
+
+        writer.writeToFile(List.of(new Circle(1, 2.5), new Square(2, 3), new Circle(3, 1)), Figure.class,
+                testFile.toFile());
+
+        assertEquals("""
+                id,radius,side\r
+                1,2.5,\r
+                2,,3\r
+                3,1.0,\r
+                """, readFile(testFile));
+    }
+
+    @Test
+    void writeCachedCells() throws IOException, IllegalAccessException {
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            tickets.add(new Ticket(i, Status.values()[i % 3], i % 2 == 0 ? "a,\"b\"" : null, "note " + i % 5));
+        }
+        StringBuilder expected = new StringBuilder();
+        new CsvWriterBuilder().build().write(tickets.iterator(), Ticket.class, expected);
+
+        StringBuilder cached = new StringBuilder();
+        new CsvWriterBuilder().cellCacheSize(2).build().write(tickets.iterator(), Ticket.class, cached);
+
+        assertEquals(expected.toString(), cached.toString());
+    }
+
+    @Test
+    void buildNegativeCellCacheSize() {
+        assertThrows(IllegalArgumentException.class, () -> new CsvWriterBuilder().cellCacheSize(-1).build());
+    }
+
+    @Test
+    void writeToFilesFanOut() throws IOException, IllegalAccessException {
+        List<Ticket> tickets = fanOutTickets();
+        CsvWriter comma = new CsvWriterBuilder().ignoreNullElements(false).build();
+        CsvWriter tab = new CsvWriterBuilder().delimiter('\t').newLine("\n").includeHeader(false)
+                .ignoreNullElements(true).columns("label", "status").build();
+        Path tabFile = Files.createTempFile("test", ".tsv");
+        Path expected = Files.createTempFile("expected", ".csv");
+        CsvWriter source = new CsvWriterBuilder().chunkSize(16).cellCacheSize(2).build();
+
+        List<WriteResult> results = source.writeToFiles(tickets, Ticket.class,
+                List.of(new CsvTarget(testFile.toFile(), comma), new CsvTarget(tabFile.toFile(), tab)));
+
+        comma.writeToFile(tickets, Ticket.class, expected.toFile());
+        assertEquals(readFile(expected), readFile(testFile));
+        tab.writeToFile(tickets, Ticket.class, expected.toFile());
+        assertEquals(readFile(expected), readFile(tabFile));
+        assertEquals(1000, results.get(0).rows());
+        assertEquals(990, results.get(1).rows());
+        Files.delete(tabFile);
+        Files.delete(expected);
+    }
+
+    @Test
+    void writeToFilesFileFailure() throws IOException {
+        CsvWriter source = new CsvWriterBuilder().chunkSize(16).build();
+        CsvWriter format = new CsvWriterBuilder().build();
+        Path directory = Files.createTempDirectory("test");
+
+        assertThrows(IOException.class, () -> source.writeToFiles(fanOutTickets(), Ticket.class,
+                List.of(new CsvTarget(testFile.toFile(), format), new CsvTarget(directory.toFile(), format))));
+        Files.delete(directory);
+    }
+
+    @Test
+    void writeToFilesUnknownColumn() {
+        CsvWriter source = new CsvWriterBuilder().build();
+        CsvWriter format = new CsvWriterBuilder().columns("missing").build();
+
+        assertThrows(IllegalArgumentException.class, () -> source.writeToFiles(fanOutTickets(), Ticket.class,
+                List.of(new CsvTarget(testFile.toFile(), format))));
+    }
+
+    private static List<Ticket> fanOutTickets() {
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tickets.add(i % 100 == 0 ? null : new Ticket(i, Status.values()[i % 3], i % 2 == 0 ? "a,\"b\"" : null, "n"));
+        }
+        return tickets;
+    }
+
+    @Test
+    void writeToFilesSnapshots() throws IOException, IllegalAccessException {
+        List<Order> orders = IntStream.range(0, 100).mapToObj(i -> new Order(i, new ArrayList<>(List.of("a;" + i, "b")),
+                new double[]{i, i / 4.0}, i % 3 == 0 ? null : new int[]{i})).toList();
+        CsvWriterBuilder format = new CsvWriterBuilder()
+                .converter(Integer.class, (value, out) -> out.append('#').append(value.longValue()))
+                .arrayFormat("<", ";", ">");
+        Path semicolonFile = Files.createTempFile("test", ".csv");
+        Path expected = Files.createTempFile("expected", ".csv");
+
+        format.chunkSize(16).build().writeToFiles(orders, Order.class,
+                List.of(new CsvTarget(testFile.toFile(), new CsvWriterBuilder().build()),
+                        new CsvTarget(semicolonFile.toFile(), new CsvWriterBuilder().delimiter(';').build())));
+
+        format.build().writeToFile(orders, Order.class, expected.toFile());
+        assertEquals(readFile(expected), readFile(testFile));
+        format.delimiter(';').build().writeToFile(orders, Order.class, expected.toFile());
+        assertEquals(readFile(expected), readFile(semicolonFile));
+        Files.delete(semicolonFile);
+        Files.delete(expected);
+    }
+
+    @Test
+    void writeToFilesReadFailure() throws IOException {
+        CsvWriter source = new CsvWriterBuilder().chunkSize(16).build();
+        Iterator<TestClass> failing = IntStream.range(0, 1000).mapToObj(i -> {
+            if (i == 499) {
+                throw new IllegalStateException("source closed");
+            }
+            return new TestClass("s" + i, i);
+        }).iterator();
+
+        assertThrows(IllegalStateException.class, () -> source.writeToFiles(failing, TestClass.class,
+                List.of(new CsvTarget(testFile.toFile(), new CsvWriterBuilder().build()))));
+
+        // the file is closed with the full batches read before the failure
+        assertEquals(1 + 496, readFile(testFile).split("\r\n").length);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = OutputBackend.class, names = {"STREAM", "CHANNEL"})
+    void resumeFromCheckpoint(OutputBackend backend) throws IOException, IllegalAccessException {
+        File file = testFile.toFile();
+        File checkpoint = Checkpoint.file(file);
+        checkpoint.deleteOnExit();
+        CsvWriter writer = new CsvWriterBuilder().outputBackend(backend).checkpointEvery(10).build();
+        List<TestClass> values = IntStream.range(0, 35).mapToObj(i -> new TestClass("s" + i, i)).toList();
+        Iterator<TestClass> failing = values.stream().limit(25).map(value -> {
+            if (value.field2 == 24) {
+                throw new IllegalStateException("disk full");
+            }
+            return value;
+        }).iterator();
+
+        assertThrows(IllegalStateException.class, () -> writer.writeToFile(failing, TestClass.class, file));
+        assertEquals(new Checkpoint(20, 12 + 10 * 6 + 10 * 8), Checkpoint.read(file));
+        assertTrue(file.length() > 12 + 10 * 6 + 10 * 8);
+
+        writer.writeToFile(values, TestClass.class, file);
+
+        StringBuilder expected = new StringBuilder("int,String\r\n");
+        values.forEach(value -> expected.append(value.field2).append(',').append(value.field1).append("\r\n"));
+        assertEquals(expected.toString(), readFile(testFile));
+        assertFalse(checkpoint.exists());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = OutputBackend.class, names = {"STREAM", "CHANNEL"})
+    void checkpointAtDurableSize(OutputBackend backend) throws IOException {
+        File file = testFile.toFile();
+        File checkpoint = Checkpoint.file(file);
+        checkpoint.deleteOnExit();
+        CsvWriter writer = new CsvWriterBuilder().outputBackend(backend).checkpointEvery(10).build();
+        // an unpaired surrogate is encoded as a single '?' byte
+        Iterator<TestClass> failing = IntStream.range(0, 15).mapToObj(i -> {
+            if (i == 14) {
+                throw new IllegalStateException("disk full");
+            }
+            return new TestClass("\uD800" + i, i);
+        }).iterator();
+
+        assertThrows(IllegalStateException.class, () -> writer.writeToFile(failing, TestClass.class, file));
+
+        StringBuilder durable = new StringBuilder("int,String\r\n");
+        IntStream.range(0, 10).forEach(i -> durable.append(i).append(",?").append(i).append("\r\n"));
+        assertEquals(new Checkpoint(10, durable.length()), Checkpoint.read(file));
+        checkpoint.delete();
+    }
+
+    @Test
+    void buildCheckpointedCompression() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsvWriterBuilder().checkpointEvery(10).compression(Compression.GZIP).build());
+    }
+
+    @Test
+    void openCheckpointedSink() {
+        assertThrows(IllegalStateException.class,
+                () -> new CsvWriterBuilder().checkpointEvery(10).build().openSink(TestClass.class, testFile.toFile()));
+    }
+
+    @Test
+    void writeAsync() throws Exception {
+        CsvWriter writer = new CsvWriterBuilder().chunkSize(7).build();
+        List<TestClass> values = IntStream.range(0, 1000).mapToObj(i -> new TestClass("s" + i, i)).toList();
+
+        WriteResult result = writer.writeToFileAsync(values, TestClass.class, testFile.toFile()).get();
+
+        StringBuilder expected = new StringBuilder("int,String\r\n");
+        values.forEach(value -> expected.append(value.field2).append(',').append(value.field1).append("\r\n"));
+        assertEquals(expected.toString(), readFile(testFile));
+        assertEquals(1000, result.rows());
+        assertEquals(Files.size(testFile), result.bytes());
+    }
+
+    @Test
+    void writeAsyncFailure() {
+        CsvWriter writer = new CsvWriterBuilder().build();
+        File directory = testFile.getParent().toFile();
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> writer.writeToFileAsync(Stream.of(TEST_VALUES), TestClass.class, directory).get());
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+
+    private static class TestClass {
+        @CsvHint(order = 2, name = "String")
+        private final String field1;
+        @CsvHint(order = 1, name = "int")
+        private final int field2;
+
+        private TestClass(String field1, int field2) {
+            this.field1 = field1;
+            this.field2 = field2;
+        }
+    }
+
+    static class TestBean {
+        private final String name;
+        private final int size;
+
+        TestBean(String name, int size) {
+            this.name = name;
+            this.size = size;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+    }
+
+    record Shape(int id, Point point) {
+    }
+
+    record Point(int x, int y) {
+    }
+
+    interface Figure {
+    }
+
+    record Circle(int id, double radius) implements Figure {
+    }
+
+    record Square(int id, int side) implements Figure {
+    }
+
+    enum Status {
+        OPEN, CLOSED, REOPENED
+    }
+
+    record Ticket(Integer id, Status status, String label, @CsvHint(cellCacheSize = 8) String note) {
+    }
+
+    record Order(Integer id, List<String> items, double[] sizes, int[] codes) {
+    }
+}
\ No newline at end of file
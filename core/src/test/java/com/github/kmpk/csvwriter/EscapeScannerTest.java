@@ -0,0 +1,41 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class EscapeScannerTest {
+    @Test
+    void testScalar() {
+        char[] chars = "abc,def\"gh\r\n".toCharArray();
+        assertEquals(3, EscapeScanner.SCALAR.indexOfAny(chars, 0, chars.length, '"', ',', '\r'));
+        assertEquals(7, EscapeScanner.SCALAR.indexOfAny(chars, 4, chars.length, '"', ',', '\r'));
+        assertEquals(6, EscapeScanner.SCALAR.indexOfAny(chars, 4, 6, '"', ',', '\r'));
+        assertEquals(10, EscapeScanner.SCALAR.indexOfAny(chars, 8, chars.length, '"', ',', '\r'));
+    }
+
+    @Test
+    void testVector() {
+        EscapeScanner vector = EscapeScanner.vector();
+        // the tests run with the incubator module, any x86 or ARM platform has 128-bit vectors
+        assertNotNull(vector);
+        Random random = new Random(42);
+        char[] chars = new char[300];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        for (int special = 0; special < chars.length; special += 7) {
+            char[] copy = chars.clone();
+            copy[special] = "\",\n".charAt(special % 3);
+            for (int from = 0; from < 40; from += 3) {
+                for (int to = copy.length; to > copy.length - 40; to -= 5) {
+                    assertEquals(EscapeScanner.SCALAR.indexOfAny(copy, from, to, '"', ',', '\n'),
+                            vector.indexOfAny(copy, from, to, '"', ',', '\n'));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldAccessorTest {
+    @Test
+    void testIgnored() throws IllegalAccessException {
+        FieldAccessor<TestClassIgnored> accessor = new FieldAccessor<>(TestClassIgnored.class);
+        assertArrayEquals(new String[]{"field"}, accessor.getFieldNames());
+        assertArrayEquals(new String[]{"visible field"}, accessor.getFieldValues(new TestClassIgnored()));
+    }
+
+    static class TestClassIgnored {
+        private static final String STATIC = "ignored static";
+
+        private final String field = "visible field";
+        @CsvIgnore
+        private final String ignoredField = "ignoredField";
+    }
+
+    @Test
+    void testOrder() throws IllegalAccessException {
+        FieldAccessor<TestClassOrder> accessor = new FieldAccessor<>(TestClassOrder.class);
+        assertArrayEquals(new String[]{"first", "second", "third"}, accessor.getFieldNames());
+        assertArrayEquals(new String[]{"first", "second", "third"}, accessor.getFieldValues(new TestClassOrder()));
+    }
+
+    static class TestClassOrder {
+        @CsvHint(order = 3)
+        private final String third = "third";
+        @CsvHint(order = 2)
+        private final String second = "second";
+        @CsvHint(order = 1)
+        private final String first = "first";
+
+    }
+
+    @Test
+    void testCustomName() {
+        FieldAccessor<TestClassCustomName> accessor = new FieldAccessor<>(TestClassCustomName.class);
+        assertEquals(Set.of("custom1", "custom2", "custom3"), Set.of(accessor.getFieldNames()));
+    }
+
+    static class TestClassCustomName {
+        @CsvHint(name = "custom1")
+        private final String field1 = "1";
+        @CsvHint(name = "custom2")
+        private final String field2 = "2";
+        @CsvHint(name = "custom3")
+        private final String field3 = "3";
+
+    }
+
+    @Test
+    void testConverter() throws IOException, IllegalAccessException {
+        FieldAccessor<TestClassConverter> accessor = new FieldAccessor<>(TestClassConverter.class);
+        StringWriter out = new StringWriter();
+        try (Writer writer = new Writer(out, ',', "\n")) {
+            accessor.writeFieldValues(new TestClassConverter(), writer);
+            writer.endLine();
+        }
+        assertEquals("\"1,5\",7\n", out.toString());
+
+        Converters converters = new Converters(Map.of(Integer.class, (CsvConverter<Integer>) (value, o) -> o.append("i")));
+        assertSame(accessor, accessor.withConverters(Converters.NONE));
+        out = new StringWriter();
+        try (Writer writer = new Writer(out, ',', "\n")) {
+            accessor.withConverters(converters).writeFieldValues(new TestClassConverter(), writer);
+            writer.endLine();
+        }
+        assertEquals("\"1,5\",i\n", out.toString());
+    }
+
+    static class TestClassConverter {
+        @CsvHint(order = 1, converter = CommaDecimalConverter.class)
+        private final double amount = 1.5;
+        @CsvHint(order = 2)
+        private final int count = 7;
+    }
+
+    static class CommaDecimalConverter implements CsvConverter<Double> {
+        @Override
+        public void write(Double value, CsvOutput out) throws IOException {
+            long cents = Math.round(value * 10);
+            out.append(cents / 10).append(',').append(cents % 10);
+        }
+    }
+
+    @Test
+    void testRecord() throws IllegalAccessException {
+        FieldAccessor<TestRecord> accessor = new FieldAccessor<>(TestRecord.class);
+        assertArrayEquals(new String[]{"id", "label", "value"}, accessor.getFieldNames());
+        assertArrayEquals(new String[]{"1", "a", "2.5"}, accessor.getFieldValues(new TestRecord(1, "a", 2.5, "x")));
+    }
+
+    private record TestRecord(int id, @CsvHint(name = "label") String name, double value, @CsvIgnore String hidden) {
+    }
+
+    @Test
+    void testInheritedFields() throws IllegalAccessException {
+        FieldAccessor<TestClassChild> accessor = new FieldAccessor<>(TestClassChild.class);
+        assertArrayEquals(new String[]{"base", "child"}, accessor.getFieldNames());
+        assertArrayEquals(new String[]{"base", "child"}, accessor.getFieldValues(new TestClassChild()));
+    }
+
+    static class TestClassBase {
+        private final String base = "base";
+    }
+
+    static class TestClassChild extends TestClassBase {
+        private final String child = "child";
+    }
+
+    @Test
+    void testGetters() throws IllegalAccessException {
+        FieldAccessor<TestClassBean> accessor = new FieldAccessor<>(TestClassBean.class, AccessStrategy.GETTERS, null);
+        assertArrayEquals(new String[]{"base", "name", "enabled", "link", "upper"}, accessor.getFieldNames());
+        assertArrayEquals(new String[]{"base", "bean", "true", "http://x", "BEAN"},
+                accessor.getFieldValues(new TestClassBean()));
+    }
+
+    public static class TestClassBean extends TestClassBase {
+        private final String name = "bean";
+        @CsvIgnore
+        private final String secret = "secret";
+        private final boolean enabled = true;
+
+        public String getBase() {
+            return "base";
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public String getUpper() {
+            return name.toUpperCase();
+        }
+
+        @CsvHint(name = "link")
+        public String getURL() {
+            return "http://x";
+        }
+
+        public String getWithArgument(int i) {
+            return "argument";
+        }
+
+        public static String getStatic() {
+            return "static";
+        }
+    }
+
+    @Test
+    void testLookup() throws IllegalAccessException {
+        FieldAccessor<TestClassOrder> accessor = new FieldAccessor<>(TestClassOrder.class, AccessStrategy.FIELDS,
+                MethodHandles.lookup());
+        assertArrayEquals(new String[]{"first", "second", "third"}, accessor.getFieldValues(new TestClassOrder()));
+        FieldAccessor<TestRecord> recordAccessor = new FieldAccessor<>(TestRecord.class, AccessStrategy.GETTERS,
+                MethodHandles.lookup());
+        assertArrayEquals(new String[]{"1", "a", "2.5"}, recordAccessor.getFieldValues(new TestRecord(1, "a", 2.5, "x")));
+    }
+
+    @Test
+    void testSelect() throws IllegalAccessException {
+        FieldAccessor<TestClassOrder> accessor = new FieldAccessor<>(TestClassOrder.class);
+        assertSame(accessor, accessor.select(ColumnSelection.ALL));
+
+        FieldAccessor<TestClassOrder> byName = accessor.select(new ColumnSelection(List.of("third", "first"), null));
+        assertArrayEquals(new String[]{"third", "first"}, byName.getFieldNames());
+        assertArrayEquals(new String[]{"third", "first"}, byName.getFieldValues(new TestClassOrder()));
+
+        FieldAccessor<TestClassOrder> byOrder = accessor.select(new ColumnSelection(null, List.of(2)));
+        assertArrayEquals(new String[]{"second"}, byOrder.getFieldNames());
+
+        assertThrows(IllegalArgumentException.class, () -> accessor.select(new ColumnSelection(List.of("fourth"), null)));
+        assertThrows(IllegalArgumentException.class, () -> accessor.select(new ColumnSelection(null, List.of(4))));
+    }
+
+    @Test
+    void testSerializer() throws IOException, IllegalAccessException {
+        FieldAccessor<Serialized> accessor = FieldAccessor.of(Serialized.class);
+        assertArrayEquals(new String[]{"id", "generated"}, accessor.getFieldNames());
+        StringWriter out = new StringWriter();
+        try (Writer writer = new Writer(out, ',', "\n")) {
+            accessor.writeFieldValues(new Serialized(), writer);
+            writer.endLine();
+        }
+        assertEquals("5,yes\n", out.toString());
+
+        FieldAccessor<Serialized> reflective = FieldAccessor.reflective(Serialized.class);
+        assertArrayEquals(new String[]{"id"}, reflective.getFieldNames());
+        assertArrayEquals(new String[]{"5"}, accessor.getFieldValues(new Serialized()));
+        assertArrayEquals(new String[]{"id"}, accessor.select(new ColumnSelection(List.of("id"), null)).getFieldNames());
+    }
+
+    static class Serialized {
+        final int id = 5;
+    }
+
+    @Test
+    void testFlatten() throws IllegalAccessException {
+        FieldAccessor<TestClassNested> hinted = new FieldAccessor<>(TestClassNested.class);
+        assertArrayEquals(new String[]{"id", "home.city", "home.location", "work", "parent"}, hinted.getFieldNames());
+        TestClassNested value = new TestClassNested(null);
+        assertArrayEquals(new String[]{"1", "Oslo", "geo", null, null}, hinted.getFieldValues(value));
+
+        FieldAccessor<TestClassNested> flattened = new FieldAccessor<>(TestClassNested.class, AccessStrategy.FIELDS,
+                null, 2, Converters.NONE);
+        assertArrayEquals(new String[]{"id", "home.city", "home.location", "work.city", "work.location.lat",
+                "parent.id", "parent.home.city", "parent.home.location", "parent.work.city", "parent.work.location",
+                "parent.parent.id", "parent.parent.home", "parent.parent.work", "parent.parent.parent"},
+                flattened.getFieldNames());
+        assertArrayEquals(new String[]{"1", "Oslo", "geo", null, null, "1", "Oslo", "geo", null, null,
+                null, null, null, null}, flattened.getFieldValues(new TestClassNested(value)));
+    }
+
+    static class TestClassNested {
+        private final int id = 1;
+        @CsvHint(flattenDepth = 1)
+        private final Address home = new Address("Oslo");
+        private final Address work = null;
+        private final TestClassNested parent;
+
+        TestClassNested(TestClassNested parent) {
+            this.parent = parent;
+        }
+    }
+
+    static class Address {
+        private final String city;
+        private final Location location = new Location();
+
+        Address(String city) {
+            this.city = city;
+        }
+    }
+
+    static class Location {
+        private final double lat = 59.9;
+
+        @Override
+        public String toString() {
+            return "geo";
+        }
+    }
+
+    @Test
+    void testCellCacheTypes() {
+        FieldAccessor<TestClassCellCache> accessor = new FieldAccessor<>(TestClassCellCache.class);
+        FieldReader[] plain = accessor.readers();
+        FieldReader[] cached = accessor.withCellCache(16).readers();
+
+        // String, enum, boxed and java.time columns are cached, the mutable and the primitive one only if hinted
+        for (int i = 0; i < 4; i++) {
+            assertNotSame(plain[i], cached[i]);
+        }
+        assertSame(plain[4], cached[4]);
+        assertSame(plain[5], cached[5]);
+        assertSame(plain[6], cached[6]);
+    }
+
+    static class TestClassCellCache {
+        private final String name = "a";
+        private final AccessStrategy strategy = AccessStrategy.FIELDS;
+        private final Integer code = 1;
+        private final java.time.LocalDate date = java.time.LocalDate.EPOCH;
+        private final StringBuilder text = new StringBuilder();
+        private final int count = 1;
+        @CsvHint(cellCacheSize = 4)
+        private final StringBuilder hinted = new StringBuilder();
+    }
+
+    @Test
+    void testCache() {
+        CacheStats before = FieldAccessor.cacheStats();
+        FieldAccessor<TestClassCached> first = FieldAccessor.of(TestClassCached.class);
+        FieldAccessor<TestClassCached> second = FieldAccessor.of(TestClassCached.class);
+        CacheStats after = FieldAccessor.cacheStats();
+
+        assertSame(first, second);
+        assertEquals(2, after.lookups() - before.lookups());
+        assertTrue(after.misses() - before.misses() <= 1);
+        assertTrue(after.hits() - before.hits() >= 1);
+    }
+
+    static class TestClassCached {
+        private final String field = "field";
+    }
+
+    @Test
+    void testFormat() throws IllegalAccessException {
+        FieldAccessor<TestClassFormat> accessor = new FieldAccessor<>(TestClassFormat.class);
+        TestClassFormat testObject = new TestClassFormat();
+        assertEquals(Set.of("array", "innerClassToString", "innerClass", "map", "list"), Set.of(accessor.getFieldNames()));
+        assertEquals(Set.of("[array]", "[list]", "{map=1}", testObject.innerClass.toString(), "Inner class with toString()"), Set.of(accessor.getFieldValues(testObject)));
+    }
+
+    static class TestClassFormat {
+
+        private final String[] array = new String[]{"array"};
+        private final List<String> list = List.of("list");
+        private final Map<String, Integer> map = Map.of("map", 1);
+        private final InnerClass innerClass = new InnerClass();
+        private final InnerClassToString innerClassToString = new InnerClassToString();
+
+        private static class InnerClass {
+            private final String field = "Inner class";
+        }
+
+        private static class InnerClassToString {
+            @Override
+            public String toString() {
+                return "Inner class with toString()";
+            }
+        }
+
+    }
+}
\ No newline at end of file
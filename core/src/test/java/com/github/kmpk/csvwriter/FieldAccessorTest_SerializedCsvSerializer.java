@@ -0,0 +1,26 @@
+package com.github.kmpk.csvwriter;
+
+import java.io.IOException;
+
+/**
+ * Serializer of {@link FieldAccessorTest.Serialized} in the form generated by the annotation processor.
+ */
+public final class FieldAccessorTest_SerializedCsvSerializer implements CsvSerializer<FieldAccessorTest.Serialized> {
+    private static final String[] HEADER = {"id", "generated"};
+
+    @Override
+    public Class<FieldAccessorTest.Serialized> type() {
+        return FieldAccessorTest.Serialized.class;
+    }
+
+    @Override
+    public String[] header() {
+        return HEADER.clone();
+    }
+
+    @Override
+    public void write(FieldAccessorTest.Serialized value, CsvRow row) throws IOException {
+        row.value(value.id);
+        row.value("yes");
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FieldReaderTest {
+    @Test
+    void testPrimitives() throws Exception {
+        TestClassPrimitives testObject = new TestClassPrimitives();
+        assertEquals("1", write("intField", testObject));
+        assertEquals("2", write("longField", testObject));
+        assertEquals("3.5", write("doubleField", testObject));
+        assertEquals("4.5", write("floatField", testObject));
+        assertEquals("true", write("booleanField", testObject));
+        assertEquals("c", write("charField", testObject));
+        assertEquals("7", write("shortField", testObject));
+        assertEquals("8", write("byteField", testObject));
+        assertEquals(1, reader("intField", testObject).get(testObject));
+    }
+
+    @Test
+    void testObjects() throws Exception {
+        TestClassObjects testObject = new TestClassObjects();
+        assertEquals("string", write("string", testObject));
+        assertEquals("\"[a, b]\"", write("array", testObject));
+        assertEquals("", write("nullValue", testObject));
+        assertNull(reader("nullValue", testObject).get(testObject));
+    }
+
+    @Test
+    void testArrays() throws Exception {
+        TestClassArrays testObject = new TestClassArrays();
+        assertEquals("\"[1, -2, 3]\"", write("ints", testObject));
+        assertEquals("\"[" + Long.MIN_VALUE + ", " + Long.MAX_VALUE + "]\"", write("longs", testObject));
+        assertEquals("\"[0.1, 1.0E10, NaN]\"", write("doubles", testObject));
+        assertEquals("\"[true, false]\"", write("booleans", testObject));
+        assertEquals("[]", write("empty", testObject));
+        assertEquals("\"[a, null, 3, 4.5]\"", write("objects", testObject));
+        assertEquals("\"[x, \"\"y\"\"]\"", write("list", testObject));
+        assertEquals("[1;-2;3]", write("ints", testObject, new ArrayFormat("[", ";", "]")));
+        assertEquals("1|-2|3", write("ints", testObject, new ArrayFormat("", "|", "")));
+    }
+
+    @Test
+    void testLongArray() throws Exception {
+        TestClassLongArray testObject = new TestClassLongArray();
+        String expected = IntStream.range(0, 10_000).mapToObj(Integer::toString).collect(Collectors.joining(" "));
+        assertEquals("prefix," + expected, write("values", testObject, new ArrayFormat("", " ", "")));
+        assertEquals(Arrays.toString(testObject.values), FieldAccessor.of(TestClassLongArray.class).getFieldValues(testObject)[0]);
+    }
+
+    private static FieldReader reader(String fieldName, Object o) throws Exception {
+        Field field = o.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return FieldReader.of(field);
+    }
+
+    private static String write(String fieldName, Object o) throws Exception {
+        return write(fieldName, o, ArrayFormat.DEFAULT);
+    }
+
+    private static String write(String fieldName, Object o, ArrayFormat format) throws Exception {
+        StringWriter out = new StringWriter();
+        Writer writer = new Writer(out, ',', "\n", format);
+        if (o instanceof TestClassLongArray) {
+            writer.value("prefix");
+        }
+        reader(fieldName, o).write(o, writer);
+        writer.endLine();
+        writer.flush();
+        String line = out.toString();
+        return line.substring(0, line.length() - 1);
+    }
+
+    static class TestClassPrimitives {
+        private final int intField = 1;
+        private final long longField = 2;
+        private final double doubleField = 3.5;
+        private final float floatField = 4.5f;
+        private final boolean booleanField = true;
+        private final char charField = 'c';
+        private final short shortField = 7;
+        private final byte byteField = 8;
+    }
+
+    static class TestClassObjects {
+        private final String string = "string";
+        private final String[] array = {"a", "b"};
+        private final Object nullValue = null;
+    }
+
+    static class TestClassArrays {
+        private final int[] ints = {1, -2, 3};
+        private final long[] longs = {Long.MIN_VALUE, Long.MAX_VALUE};
+        private final double[] doubles = {0.1, 1e10, Double.NaN};
+        private final boolean[] booleans = {true, false};
+        private final byte[] empty = {};
+        private final Object[] objects = {"a", null, 3, 4.5f};
+        private final List<String> list = List.of("x", "\"y\"");
+    }
+
+    static class TestClassLongArray {
+        private final int[] values = IntStream.range(0, 10_000).toArray();
+    }
+}
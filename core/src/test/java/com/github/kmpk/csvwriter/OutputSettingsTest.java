@@ -0,0 +1,85 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.github.kmpk.csvwriter.TestUtil.readFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OutputSettingsTest {
+    private static final String TEXT = "ascii, éè € 😀\r\n".repeat(50);
+
+    private Path testFile;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        testFile = Files.createTempFile("test", ".csv");
+        testFile.toFile().deleteOnExit();
+    }
+
+    @ParameterizedTest
+    @EnumSource(OutputBackend.class)
+    void writeSmallBuffers(OutputBackend backend) throws IOException {
+        Files.writeString(testFile, "previous content that is longer than the new one".repeat(100));
+        OutputSettings settings = new CsvWriterBuilder()
+                .outputBackend(backend)
+                .bufferSize(16)
+                .fsyncOnClose(true)
+                .mappedRegionSize(16)
+                .outputSettings();
+
+        try (java.io.Writer writer = settings.open(testFile.toFile())) {
+            // odd chunk sizes split surrogate pairs between writes
+            char[] chars = TEXT.toCharArray();
+            for (int i = 0; i < chars.length; i += 7) {
+                writer.write(chars, i, Math.min(7, chars.length - i));
+            }
+        }
+
+        assertEquals(TEXT, readFile(testFile));
+    }
+
+    @ParameterizedTest
+    @EnumSource(OutputBackend.class)
+    void writeAppend(OutputBackend backend) throws IOException {
+        Files.writeString(testFile, "existing\r\n");
+        OutputSettings settings = new CsvWriterBuilder().outputBackend(backend).append(true).mappedRegionSize(16).outputSettings();
+
+        try (java.io.Writer writer = settings.open(testFile.toFile())) {
+            writer.write(TEXT);
+        }
+
+        assertEquals("existing\r\n" + TEXT, readFile(testFile));
+    }
+
+    @Test
+    void partFile() {
+        File dir = new File("dir");
+        assertEquals(new File(dir, "export-00001.csv"), OutputSettings.partFile(new File(dir, "export.csv"), 1));
+        assertEquals(new File(dir, "export-00012"), OutputSettings.partFile(new File(dir, "export"), 12));
+        assertEquals(new File(".hidden-00003"), OutputSettings.partFile(new File(".hidden"), 3));
+        assertEquals(new File(dir, "export-00001.csv.gz"), OutputSettings.partFile(new File(dir, "export.csv.gz"), 1));
+        assertEquals(new File(dir, "export-00002.csv.deflate"),
+                OutputSettings.partFile(new File(dir, "export.csv.deflate"), 2));
+        assertEquals(new File(dir, "export-00003.gz"), OutputSettings.partFile(new File(dir, "export.gz"), 3));
+    }
+
+    @ParameterizedTest
+    @EnumSource(OutputBackend.class)
+    void writeDefaultBuffers(OutputBackend backend) throws IOException {
+        OutputSettings settings = new CsvWriterBuilder().outputBackend(backend).outputSettings();
+
+        try (java.io.Writer writer = settings.open(testFile.toFile())) {
+            writer.write(TEXT);
+        }
+
+        assertEquals(TEXT, readFile(testFile));
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PipelinedWriterTest {
+    @Test
+    void drain() throws Exception {
+        PipelinedWriter pipe = new PipelinedWriter(4);
+        StringWriter out = new StringWriter();
+        CompletableFuture<Void> io = CompletableFuture.runAsync(() -> {
+            try {
+                pipe.drainTo(out);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            String chunk = "chunk" + i + ";";
+            pipe.write(chunk);
+            pipe.flush();
+            expected.append(chunk);
+        }
+        pipe.write("tail");
+        pipe.close();
+        io.get();
+
+        assertEquals(expected + "tail", out.toString());
+    }
+
+    @Test
+    void fail() throws Exception {
+        PipelinedWriter pipe = new PipelinedWriter(4);
+        CompletableFuture<Void> io = CompletableFuture.runAsync(() -> {
+            try {
+                pipe.fail();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertThrows(IOException.class, () -> {
+            for (int i = 0; i < 1000; i++) {
+                pipe.write("chunk");
+                pipe.flush();
+            }
+        });
+        assertThrows(IOException.class, pipe::close);
+        io.get();
+    }
+}
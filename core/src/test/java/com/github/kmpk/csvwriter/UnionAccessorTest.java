@@ -0,0 +1,74 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UnionAccessorTest {
+    @Test
+    void testSealed() throws IllegalAccessException {
+        FieldAccessor<Event> accessor = UnionAccessor.of(Event.class, List.of(), FieldAccessor::reflective);
+
+        assertArrayEquals(new String[]{"id", "x", "y", "delta"}, accessor.getFieldNames());
+        assertArrayEquals(new String[]{"1", "2", "3", null}, accessor.getFieldValues(new Click(1, 2, 3)));
+        assertArrayEquals(new String[]{"4", null, null, "-5"}, accessor.getFieldValues(new Scroll(4, -5)));
+    }
+
+    @Test
+    void testSubtypes() throws IllegalAccessException {
+        FieldAccessor<Base> accessor = UnionAccessor.of(Base.class, List.of(Sub1.class, Sub2.class),
+                FieldAccessor::reflective);
+
+        assertArrayEquals(new String[]{"id", "first", "second"}, accessor.getFieldNames());
+        assertArrayEquals(new String[]{"1", null, null}, accessor.getFieldValues(new Base()));
+        assertArrayEquals(new String[]{"1", "a", null}, accessor.getFieldValues(new Sub1()));
+        assertArrayEquals(new String[]{"1", null, "b"}, accessor.getFieldValues(new Sub2()));
+        // unknown subclasses write the columns they share with the union, more classes than the inline cache holds
+        assertArrayEquals(new String[]{"1", "a", null}, accessor.getFieldValues(new Sub3()));
+        assertArrayEquals(new String[]{"1", "a", null}, accessor.getFieldValues(new Sub4()));
+        assertArrayEquals(new String[]{"1", null, "b"}, accessor.getFieldValues(new Sub2()));
+
+        FieldAccessor<Base> selected = accessor.select(new ColumnSelection(List.of("second", "id"), null));
+        assertArrayEquals(new String[]{"second", "id"}, selected.getFieldNames());
+        assertArrayEquals(new String[]{null, "1"}, selected.getFieldValues(new Sub1()));
+        FieldAccessor<Base> byOrder = accessor.select(new ColumnSelection(null, List.of(1)));
+        assertArrayEquals(new String[]{"id"}, byOrder.getFieldNames());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> accessor.select(new ColumnSelection(List.of("missing"), null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> UnionAccessor.of(Base.class, List.of(String.class), FieldAccessor::reflective));
+    }
+
+    sealed interface Event permits Click, Scroll {
+    }
+
+    record Click(long id, int x, int y) implements Event {
+    }
+
+    record Scroll(long id, int delta) implements Event {
+    }
+
+    static class Base {
+        @CsvHint(order = 1)
+        private final int id = 1;
+    }
+
+    static class Sub1 extends Base {
+        private final String first = "a";
+    }
+
+    static class Sub2 extends Base {
+        private final String second = "b";
+    }
+
+    static class Sub3 extends Sub1 {
+        private final String third = "c";
+    }
+
+    static class Sub4 extends Sub1 {
+    }
+}
@@ -0,0 +1,166 @@
+package com.github.kmpk.csvwriter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.kmpk.csvwriter.TestUtil.readFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WriterTest {
+    private Path testFile;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        testFile = Files.createTempFile("test", ".csv");
+        testFile.toFile().deleteOnExit();
+    }
+
+    @Test
+    void writeFile() throws IOException {
+        String[] testString1 = new String[]{"header1", "header2", "header3"};
+        String[] testString2 = new String[]{"1", "2", "3"};
+        String[] testString3 = new String[]{"11", "22", "33"};
+
+        try (Writer writer = new Writer(testFile.toFile(), ',', "\r\n")) {
+            writer.writeLine(testString1);
+            writer.writeLine(testString2);
+            writer.writeLine(testString3);
+        }
+
+        String expected = """
+                header1,header2,header3\r
+                1,2,3\r
+                11,22,33\r
+                """;
+
+        assertEquals(expected, readFile(testFile));
+    }
+
+    @Test
+    void writeFileEscaped() throws IOException {
+        String[] testString1 = new String[]{"header1,", "header2", "header3"};
+        String[] testString2 = new String[]{"1", "2,", "3\r\n"};
+        String[] testString3 = new String[]{"11\"", "22", "33"};
+
+        try (Writer writer = new Writer(testFile.toFile(), ',', "\r\n")) {
+            writer.writeLine(testString1);
+            writer.writeLine(testString2);
+            writer.writeLine(testString3);
+        }
+
+        String expected = """
+                "header1,",header2,header3\r
+                1,"2,","3\r\n"\r
+                "11\"\"",22,33\r
+                """;
+
+        assertEquals(expected, readFile(testFile));
+    }
+
+    @Test
+    void writeFileEmpty() throws IOException {
+
+        try (Writer writer = new Writer(testFile.toFile(), ',', "\r\n")) {
+            writer.writeLine();
+        }
+
+        String expected = "";
+
+        assertEquals(expected, readFile(testFile));
+    }
+
+    @Test
+    void writeFileLoneNewLineStart() throws IOException {
+        String text = "x".repeat(100);
+        String carriageReturns = text + "\r" + text + "\r";
+        String newLine = text + "\r" + text + "\r\n" + text;
+
+        try (Writer writer = new Writer(testFile.toFile(), ',', "\r\n")) {
+            writer.writeLine(carriageReturns, newLine);
+        }
+
+        assertEquals(carriageReturns + ",\"" + newLine + "\"\r\n", readFile(testFile));
+    }
+
+    @Test
+    void writeFileLongValues() throws IOException {
+        String plain = "a".repeat(20_000);
+        String quoted = "\"b\",".repeat(10_000);
+
+        try (Writer writer = new Writer(testFile.toFile(), ',', "\r\n")) {
+            writer.writeLine(plain, quoted);
+            writer.writeLine(null, "c");
+        }
+
+        String expected = plain + ",\"" + quoted.replace("\"", "\"\"") + "\"\r\n,c\r\n";
+
+        assertEquals(expected, readFile(testFile));
+    }
+
+    @Test
+    void writeFileCollections() throws IOException {
+        try (Writer writer = new Writer(testFile.toFile(), ',', "\r\n")) {
+            writer.value(List.of("a\r", "\nb"));
+            writer.value(new double[]{1.5, 2});
+            writer.value(Set.of());
+            writer.endLine();
+        }
+
+        assertEquals("\"[a\r, \nb]\",\"[1.5, 2.0]\",[]\r\n", readFile(testFile));
+    }
+
+    @Test
+    void writeFileConverted() throws IOException {
+        CsvConverter<String> upperCase = (value, out) -> {
+            for (int i = 0; i < value.length(); i++) {
+                out.append(Character.toUpperCase(value.charAt(i)));
+            }
+        };
+        CsvConverter<Long> hex = CsvConverter.unquoted((value, out) -> out.append("0x").append(Long.toHexString(value)));
+
+        try (Writer writer = new Writer(testFile.toFile(), ',', "\r\n")) {
+            writer.value("a,b", upperCase);
+            writer.value(255L, hex);
+            writer.value(null, hex);
+            writer.endLine();
+        }
+
+        assertEquals("\"A,B\",0xff,\r\n", readFile(testFile));
+    }
+
+    @Test
+    void writeFileFormattedValues() throws IOException {
+        try (Writer writer = new Writer(testFile.toFile(), ',', "\r\n")) {
+            writer.value(-42L);
+            writer.value(1.5);
+            writer.value(true);
+            writer.value(LocalDate.of(2024, 1, 31));
+            writer.value((Object) Instant.EPOCH);
+            writer.value((Object) 'x');
+            writer.endLine();
+        }
+
+        assertEquals("-42,1.5,true,2024-01-31,1970-01-01T00:00:00Z,x\r\n", readFile(testFile));
+    }
+
+    @Test
+    void writeFileFormattedValuesEscaped() throws IOException {
+        try (Writer writer = new Writer(testFile.toFile(), ':', "\r\n")) {
+            writer.value(7);
+            writer.value(LocalTime.of(10, 15));
+            writer.value(new double[]{1, 2});
+            writer.endLine();
+        }
+
+        assertEquals("7:\"10:15\":[1.0, 2.0]\r\n", readFile(testFile));
+    }
+}
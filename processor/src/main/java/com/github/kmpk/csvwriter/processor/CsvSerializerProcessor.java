@@ -0,0 +1,364 @@
+package com.github.kmpk.csvwriter.processor;
+
+import com.github.kmpk.csvwriter.CsvConverter;
+import com.github.kmpk.csvwriter.CsvHint;
+import com.github.kmpk.csvwriter.CsvIgnore;
+import com.github.kmpk.csvwriter.CsvSerializable;
+import com.github.kmpk.csvwriter.CsvSerializer;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@link CsvSerializer} for each class or record annotated with {@link CsvSerializable} and registers the
+ * serializers in {@code META-INF/services}, where {@code CsvWriter} discovers them.
+ * <p>
+ * The serializer writes the same columns as the reflective {@code FIELDS} strategy: record components in declaration
+ * order, or the non-static fields of the class and its superclasses, superclass fields first, ordered by
+ * {@link CsvHint#order()}. Fields that are not accessible from the package of the class are read through their
+ * {@code getX()} or {@code isX()} getter. A class with an inaccessible field without a getter, or a private class,
+ * is reported as an error.
+ */
+@SupportedAnnotationTypes("com.github.kmpk.csvwriter.CsvSerializable")
+public class CsvSerializerProcessor extends AbstractProcessor {
+    private static final String SERVICE_FILE = "META-INF/services/" + CsvSerializer.class.getName();
+    private static final String SUFFIX = "CsvSerializer";
+
+    private final Set<String> serializers = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(CsvSerializable.class)) {
+            if (element instanceof TypeElement type) {
+                try {
+                    generate(type);
+                } catch (InvalidTypeException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "Can't write the serializer of " + type.getQualifiedName() + ": " + e.getMessage(), type);
+                }
+            }
+        }
+        if (roundEnv.processingOver() && !serializers.isEmpty()) {
+            writeServiceFile();
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        checkAccessible(type);
+        String packageName = packageOf(type).getQualifiedName().toString();
+        String simpleName = serializerSimpleName(type);
+        String serializerName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        List<Column> columns = columns(type, packageOf(type));
+
+        String typeName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        if (!type.getTypeParameters().isEmpty()) {
+            source.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n");
+        }
+        source.append("public final class ").append(simpleName)
+                .append(" implements ").append(CsvSerializer.class.getName()).append('<').append(typeName).append("> {\n");
+        source.append("    private static final String[] HEADER = {");
+        for (int i = 0; i < columns.size(); i++) {
+            source.append(i > 0 ? ", " : "").append(processingEnv.getElementUtils().getConstantExpression(columns.get(i).name()));
+        }
+        source.append("};\n");
+        for (int i = 0; i < columns.size(); i++) {
+            String converter = columns.get(i).converter();
+            if (converter != null) {
+                source.append("    private static final ").append(converter).append(" CONVERTER_").append(i)
+                        .append(" = new ").append(converter).append("();\n");
+            }
+        }
+        source.append("\n    @Override\n    public Class<").append(typeName).append("> type() {\n")
+                .append("        return ").append(typeName).append(".class;\n    }\n");
+        source.append("\n    @Override\n    public String[] header() {\n        return HEADER.clone();\n    }\n");
+        source.append("\n    @Override\n    public void write(").append(typeName)
+                .append(" value, com.github.kmpk.csvwriter.CsvRow row) throws java.io.IOException {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            source.append("        row.value(value.").append(column.access());
+            if (column.converter() != null) {
+                source.append(", CONVERTER_").append(i);
+            }
+            source.append(");\n");
+        }
+        source.append("    }\n}\n");
+
+        try (Writer out = processingEnv.getFiler().createSourceFile(serializerName, type).openWriter()) {
+            out.write(source.toString());
+        }
+        serializers.add(serializerName);
+    }
+
+    /**
+     * Returns the columns of the type, ordered like the reflective schema orders them.
+     */
+    private List<Column> columns(TypeElement type, PackageElement target) {
+        List<Column> columns = new ArrayList<>();
+        if (type.getKind() == ElementKind.RECORD) {
+            for (RecordComponentElement component : type.getRecordComponents()) {
+                ExecutableElement accessor = component.getAccessor();
+                VariableElement field = field(type, component.getSimpleName().toString());
+                if (annotation(accessor, field, CsvIgnore.class) != null) {
+                    continue;
+                }
+                columns.add(column(accessor, field, component.getSimpleName() + "()"));
+            }
+        } else {
+            for (TypeElement declaring : hierarchy(type)) {
+                for (VariableElement field : ElementFilter.fieldsIn(declaring.getEnclosedElements())) {
+                    if (field.getModifiers().contains(Modifier.STATIC) || field.getAnnotation(CsvIgnore.class) != null) {
+                        continue;
+                    }
+                    String access = accessible(field, target) ? field.getSimpleName().toString() : getter(type, field, target) + "()";
+                    columns.add(column(null, field, access));
+                }
+            }
+        }
+        columns.sort(Comparator.comparingInt(Column::order));
+        return columns;
+    }
+
+    private Column column(ExecutableElement accessor, VariableElement field, String access) {
+        CsvHint hint = annotation(accessor, field, CsvHint.class);
+        String name = field.getSimpleName().toString();
+        if (hint == null) {
+            return new Column(Integer.MAX_VALUE, name, access, null);
+        }
+        if (hint.flattenDepth() > 0) {
+            throw new InvalidTypeException("Generated serializers can't flatten nested objects", field);
+        }
+        Element annotated = accessor != null && accessor.getAnnotation(CsvHint.class) != null ? accessor : field;
+        return new Column(hint.order(), hint.name().isEmpty() ? name : hint.name(), access, converter(annotated));
+    }
+
+    /**
+     * Returns the converter class set with {@link CsvHint#converter()}, or {@code null}.
+     */
+    private String converter(Element annotated) {
+        for (AnnotationMirror mirror : annotated.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(CsvHint.class.getName())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (!entry.getKey().getSimpleName().contentEquals("converter")) {
+                    continue;
+                }
+                TypeElement converter = (TypeElement) ((DeclaredType) entry.getValue().getValue()).asElement();
+                if (converter.getQualifiedName().contentEquals(CsvConverter.class.getName())) {
+                    return null;
+                }
+                checkInstantiable(converter, annotated);
+                return converter.getQualifiedName().toString();
+            }
+        }
+        return null;
+    }
+
+    private void checkInstantiable(TypeElement converter, Element annotated) {
+        boolean instantiable = !converter.getModifiers().contains(Modifier.ABSTRACT)
+                && isVisible(converter)
+                && (converter.getNestingKind() != NestingKind.MEMBER || converter.getModifiers().contains(Modifier.STATIC))
+                && ElementFilter.constructorsIn(converter.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!instantiable) {
+            throw new InvalidTypeException("Converter " + converter.getQualifiedName()
+                    + " must be a non-private class with a non-private no-arg constructor", annotated);
+        }
+    }
+
+    /**
+     * Returns the name of the getter of the field, declared by the type or its superclasses.
+     */
+    private String getter(TypeElement type, VariableElement field, PackageElement target) {
+        String property = field.getSimpleName().toString();
+        String capitalized = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        List<String> names = field.asType().getKind() == TypeKind.BOOLEAN
+                ? List.of("is" + capitalized, "get" + capitalized)
+                : List.of("get" + capitalized);
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (names.contains(method.getSimpleName().toString()) && method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.STATIC) && accessible(method, target)
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+                return method.getSimpleName().toString();
+            }
+        }
+        throw new InvalidTypeException("Field " + property + " is not accessible from package " + target.getQualifiedName()
+                + " and has no getter", field);
+    }
+
+    private boolean accessible(Element member, PackageElement target) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE) && packageOf(member).equals(target);
+    }
+
+    /**
+     * Returns the type and its superclasses, outermost superclass first, excluding JDK classes like the reflective
+     * schema does.
+     */
+    private List<TypeElement> hierarchy(TypeElement type) {
+        ArrayDeque<TypeElement> types = new ArrayDeque<>();
+        TypeElement current = type;
+        while (current != null && !isJdk(current)) {
+            types.addFirst(current);
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        return new ArrayList<>(types);
+    }
+
+    private boolean isJdk(TypeElement type) {
+        String name = packageOf(type).getQualifiedName().toString();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.");
+    }
+
+    private void checkAccessible(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) {
+            throw new InvalidTypeException("@CsvSerializable can only be used on classes and records", type);
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new InvalidTypeException("@CsvSerializable can't be used on abstract classes", type);
+        }
+        if (!isVisible(type)) {
+            throw new InvalidTypeException("@CsvSerializable classes and their enclosing classes must not be private", type);
+        }
+        if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            throw new InvalidTypeException("@CsvSerializable can't be used on local classes", type);
+        }
+    }
+
+    private static boolean isVisible(TypeElement type) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the simple name of the serializer: {@code Outer_InnerCsvSerializer} for {@code Outer.Inner}, matching
+     * the binary name {@code Outer$Inner} that {@code CsvWriter} looks the serializer up by.
+     */
+    private static String serializerSimpleName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element e = type.getEnclosingElement(); e instanceof TypeElement enclosing; e = e.getEnclosingElement()) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+        }
+        return name.append(SUFFIX).toString();
+    }
+
+    private PackageElement packageOf(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element);
+    }
+
+    private static VariableElement field(TypeElement type, String name) {
+        return ElementFilter.fieldsIn(type.getEnclosedElements()).stream()
+                .filter(field -> field.getSimpleName().contentEquals(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static <A extends java.lang.annotation.Annotation> A annotation(ExecutableElement accessor, VariableElement field,
+                                                                           Class<A> annotationType) {
+        A annotation = accessor != null ? accessor.getAnnotation(annotationType) : null;
+        if (annotation == null && field != null) {
+            annotation = field.getAnnotation(annotationType);
+        }
+        return annotation;
+    }
+
+    /**
+     * Writes the service file listing the generated serializers, keeping the entries of serializers generated by
+     * earlier incremental compilations.
+     */
+    private void writeServiceFile() {
+        Set<String> entries = new LinkedHashSet<>();
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Reader reader = existing.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                lines.lines().map(String::trim).filter(line -> !line.isEmpty()).forEach(entries::add);
+            }
+        } catch (IOException e) {
+            // no earlier service file
+        }
+        entries.addAll(serializers);
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer out = file.openWriter()) {
+                for (String entry : entries) {
+                    out.write(entry);
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * A column of the generated serializer.
+     *
+     * @param access    The expression reading the value from the object, a field name or a getter call.
+     * @param converter The qualified name of the converter class, or {@code null}.
+     */
+    private record Column(int order, String name, String access, String converter) {
+    }
+
+    private static final class InvalidTypeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Element element;
+
+        InvalidTypeException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
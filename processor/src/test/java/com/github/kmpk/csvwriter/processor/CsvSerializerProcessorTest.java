@@ -0,0 +1,145 @@
+package com.github.kmpk.csvwriter.processor;
+
+import com.github.kmpk.csvwriter.CsvSerializer;
+import com.github.kmpk.csvwriter.CsvWriterBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvSerializerProcessorTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void generate() throws Exception {
+        source("example/Base.java", """
+                package example;
+
+                public class Base {
+                    @com.github.kmpk.csvwriter.CsvHint(order = 1)
+                    protected long id = 1;
+                }
+                """);
+        source("example/Order.java", """
+                package example;
+
+                import com.github.kmpk.csvwriter.*;
+
+                @CsvSerializable
+                public class Order extends Base {
+                    private final String item = "pen, blue";
+                    @CsvHint(name = "price", converter = Cents.class)
+                    final double amount = 1.5;
+                    private boolean paid = true;
+                    @CsvIgnore
+                    private String secret;
+
+                    public String getItem() {
+                        return item;
+                    }
+
+                    public boolean isPaid() {
+                        return paid;
+                    }
+
+                    public static class Cents implements CsvConverter<Double> {
+                        @Override
+                        public void write(Double value, CsvOutput out) throws java.io.IOException {
+                            out.append(Math.round(value * 100));
+                        }
+                    }
+
+                    @CsvSerializable
+                    public record Line(@CsvHint(order = 1) int quantity, String product) {
+                    }
+                }
+                """);
+
+        List<Diagnostic<? extends JavaFileObject>> errors = compile();
+
+        assertTrue(errors.isEmpty(), errors.toString());
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> order = loader.loadClass("example.Order");
+            Class<?> line = loader.loadClass("example.Order$Line");
+            List<String> serializers = ServiceLoader.load(CsvSerializer.class, loader).stream()
+                    .map(provider -> provider.type().getName())
+                    .toList();
+            assertEquals(List.of("example.OrderCsvSerializer", "example.Order_LineCsvSerializer"), serializers);
+            CsvSerializer<?> serializer = (CsvSerializer<?>) loader.loadClass("example.OrderCsvSerializer")
+                    .getConstructor().newInstance();
+            assertArrayEquals(new String[]{"id", "item", "price", "paid"}, serializer.header());
+
+            assertEquals("id,item,price,paid\r\n1,\"pen, blue\",150,true\r\n",
+                    write(order, order.getConstructor().newInstance()));
+            assertEquals("quantity,product\r\n3,ink\r\n",
+                    write(line, line.getConstructors()[0].newInstance(3, "ink")));
+        }
+    }
+
+    @Test
+    void reportInaccessibleField() throws IOException {
+        source("example/Hidden.java", """
+                package example;
+
+                @com.github.kmpk.csvwriter.CsvSerializable
+                public class Hidden {
+                    private int value;
+                }
+                """);
+
+        List<Diagnostic<? extends JavaFileObject>> errors = compile();
+
+        assertFalse(errors.isEmpty());
+        assertTrue(errors.get(0).getMessage(null).contains("has no getter"), errors.toString());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static String write(Class type, Object value) throws Exception {
+        StringBuilder out = new StringBuilder();
+        new CsvWriterBuilder().build().write(List.of(value).iterator(), type, out);
+        return out.toString();
+    }
+
+    private void source(String name, String content) throws IOException {
+        Path file = dir.resolve("src").resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    /**
+     * Compiles the sources with the processor into the temp dir, returning the errors.
+     */
+    private List<Diagnostic<? extends JavaFileObject>> compile() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null);
+             var sources = Files.walk(dir.resolve("src"))) {
+            List<Path> paths = sources.filter(Files::isRegularFile).collect(Collectors.toList());
+            List<String> options = List.of("-d", dir.toString(), "-classpath", System.getProperty("java.class.path"),
+                    "-processor", CsvSerializerProcessor.class.getName());
+            compiler.getTask(null, files, diagnostics, options, null, files.getJavaFileObjectsFromPaths(paths)).call();
+        }
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .toList();
+    }
+}